@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.commons.codec.binary.Base64;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
@@ -34,7 +35,7 @@ public class KrakenClient {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
 
-    public KrakenClient(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public KrakenClient(@Qualifier("krakenRestTemplate") RestTemplate restTemplate, ObjectMapper objectMapper) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
     }
@@ -103,6 +104,34 @@ public class KrakenClient {
         }
     }
 
+    public KrakenOrderStatusResponse getOrderStatus(String apiKey, String privateKey, List<String> orderIds) {
+        try {
+            String endpoint = "orders/status";
+            String url = String.format("%s/derivatives/api/%s/%s", baseUrl, apiVersion, endpoint);
+
+            MultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+            for (String orderId : orderIds) {
+                formData.add("orderIds", orderId);
+            }
+
+            String postData = createPostData(formData);
+            HttpHeaders headers = createAuthenticatedHeaders(apiKey, privateKey, endpoint, postData);
+            headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+            HttpEntity<MultiValueMap<String, String>> entity = new HttpEntity<>(formData, headers);
+
+            ResponseEntity<KrakenOrderStatusResponse> response = restTemplate.exchange(
+                url, HttpMethod.POST, entity, KrakenOrderStatusResponse.class);
+
+            logger.info("Retrieved status of {} orders", orderIds.size());
+            return response.getBody();
+
+        } catch (Exception e) {
+            logger.error("Error getting order status: {}", e.getMessage());
+            throw new RuntimeException("Failed to get order status", e);
+        }
+    }
+
     public KrakenOrderResponse placeOrder(String apiKey, String privateKey, KrakenOrderRequest orderRequest) {
         try {
             String endpoint = "sendorder";
@@ -0,0 +1,199 @@
+package com.assessment.riskmanagement.client;
+
+import com.assessment.riskmanagement.profiling.KrakenCallEvent;
+import com.assessment.riskmanagement.service.LatencyService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongConsumer;
+
+/**
+ * Records every Kraken call as {@code kraken.client.requests} tagged by endpoint, method, HTTP status
+ * and outcome, plus request and response payload sizes and a per-endpoint in-flight gauge. The timer
+ * stops when the response is closed, so it includes reading and deserializing the body. Percentiles
+ * and SLO buckets are configured under {@code management.metrics.distribution}. Each call is also
+ * emitted as a {@link KrakenCallEvent} for flight recordings and recorded in the {@link LatencyService}
+ * histograms.
+ */
+public class KrakenMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String REQUESTS = "kraken.client.requests";
+    static final String REQUEST_SIZE = "kraken.client.request.size";
+    static final String RESPONSE_SIZE = "kraken.client.response.size";
+    static final String ACTIVE = "kraken.client.requests.active";
+
+    private final MeterRegistry meterRegistry;
+    private final LatencyService latencyService;
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public KrakenMetricsInterceptor(MeterRegistry meterRegistry, LatencyService latencyService) {
+        this.meterRegistry = meterRegistry;
+        this.latencyService = latencyService;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String endpoint = endpoint(request);
+        String method = request.getMethod().name();
+        AtomicInteger active = inFlight.computeIfAbsent(endpoint, e -> meterRegistry.gauge(ACTIVE,
+                Tags.of("endpoint", e), new AtomicInteger()));
+
+        DistributionSummary.builder(REQUEST_SIZE)
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry)
+                .record(body.length);
+
+        KrakenCallEvent event = new KrakenCallEvent();
+        event.begin();
+        event.endpoint = endpoint;
+        event.requestBytes = body.length;
+
+        active.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            active.decrementAndGet();
+            stop(sample, endpoint, method, "NONE", "IO_ERROR", e.getClass().getSimpleName());
+            event.commit();
+            throw e;
+        }
+
+        HttpStatusCode statusCode = response.getStatusCode();
+        event.status = statusCode.value();
+        return new MeteredResponse(response, responseBytes -> {
+            active.decrementAndGet();
+            stop(sample, endpoint, method, String.valueOf(statusCode.value()), outcome(statusCode), "none");
+            event.responseBytes = responseBytes;
+            event.commit();
+        }, endpoint);
+    }
+
+    private void stop(Timer.Sample sample, String endpoint, String method, String status, String outcome, String exception) {
+        long durationNanos = sample.stop(Timer.builder(REQUESTS)
+                .description("Kraken API calls")
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .tag("status", status)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .register(meterRegistry));
+        latencyService.recordKrakenCall(endpoint, durationNanos);
+    }
+
+    // Path below /derivatives/api/<version>/, e.g. "sendorder" or "orders/status"
+    private static String endpoint(HttpRequest request) {
+        String path = request.getURI().getPath();
+        int api = path.indexOf("/api/");
+        int start = api >= 0 ? path.indexOf('/', api + "/api/".length()) : -1;
+        if (start < 0) {
+            start = path.lastIndexOf('/');
+        }
+        return start >= 0 ? path.substring(start + 1) : path;
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return "SUCCESS";
+        } else if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        } else if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        return "UNKNOWN";
+    }
+
+    /**
+     * Counts body bytes as they are read and passes the total to the completion callback exactly once on close.
+     */
+    private final class MeteredResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final LongConsumer onClose;
+        private final String endpoint;
+        private long bytesRead;
+        private boolean closed;
+        private InputStream body;
+
+        private MeteredResponse(ClientHttpResponse delegate, LongConsumer onClose, String endpoint) {
+            this.delegate = delegate;
+            this.onClose = onClose;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b >= 0) {
+                            bytesRead++;
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] buffer, int offset, int length) throws IOException {
+                        int n = super.read(buffer, offset, length);
+                        if (n > 0) {
+                            bytesRead += n;
+                        }
+                        return n;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                delegate.close();
+            } finally {
+                DistributionSummary.builder(RESPONSE_SIZE)
+                        .baseUnit("bytes")
+                        .tag("endpoint", endpoint)
+                        .register(meterRegistry)
+                        .record(bytesRead);
+                onClose.accept(bytesRead);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.assessment.riskmanagement.config;
+
+import com.assessment.riskmanagement.entity.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.List;
+
+/**
+ * Exports the second-level cache regions as {@code cache.*} meters (gets by hit/miss, puts,
+ * removals, evictions) on the actuator metrics endpoint.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheMetricsConfig.class);
+    private static final List<String> REGIONS = List.of(User.CACHE_REGION, User.CLIENT_ID_CACHE_REGION);
+
+    private final MeterRegistry meterRegistry;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheMetricsConfig(MeterRegistry meterRegistry, EntityManagerFactory entityManagerFactory) {
+        this.meterRegistry = meterRegistry;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindCacheMetrics() {
+        // Hibernate's own CacheManager; the provider's default one can be a different instance
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory();
+        if (!(regionFactory instanceof JCacheRegionFactory jcacheRegionFactory)) {
+            logger.warn("Second-level cache is not backed by JCache ({}), skipping metrics",
+                    regionFactory.getClass().getSimpleName());
+            return;
+        }
+        CacheManager cacheManager = jcacheRegionFactory.getCacheManager();
+        for (String region : REGIONS) {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            if (cache == null) {
+                logger.warn("Second-level cache region {} not found, skipping metrics", region);
+                continue;
+            }
+            JCacheMetrics.monitor(meterRegistry, cache, Tags.of("region", region));
+        }
+    }
+}
@@ -1,14 +1,28 @@
 package com.assessment.riskmanagement.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
 @Configuration
 @EnableJpaRepositories(basePackages = "com.assessment.riskmanagement.repository")
-@EnableJpaAuditing
+@EnableJpaAuditing(dateTimeProviderRef = "utcDateTimeProvider")
 @EnableTransactionManagement
 public class DatabaseConfig {
 
+    /**
+     * created_at is the partition key of orders and risk_events, whose monthly boundaries are UTC, so
+     * audit timestamps are taken in UTC whatever the JVM's zone.
+     */
+    @Bean
+    public DateTimeProvider utcDateTimeProvider() {
+        return () -> Optional.of(LocalDateTime.now(ZoneOffset.UTC));
+    }
 }
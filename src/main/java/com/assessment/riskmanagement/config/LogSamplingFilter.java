@@ -0,0 +1,48 @@
+package com.assessment.riskmanagement.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback turbo filter that keeps one in every {@code sampleRate} INFO (and lower) lines from the
+ * configured loggers and drops the rest before an event is even created. WARN and ERROR always pass.
+ * Configured in {@code logback-spring.xml} for per-call lines such as the KrakenClient success logs.
+ */
+public class LogSamplingFilter extends TurboFilter {
+
+    private final List<String> loggerNames = new ArrayList<>();
+    private final AtomicLong counter = new AtomicLong();
+    private int sampleRate = 1;
+
+    public void addLoggerName(String loggerName) {
+        loggerNames.add(loggerName);
+    }
+
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (sampleRate == 1 || level == null || level.isGreaterOrEqual(Level.WARN) || !matches(logger.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        return counter.getAndIncrement() % sampleRate == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    private boolean matches(String name) {
+        for (String loggerName : loggerNames) {
+            if (name.startsWith(loggerName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package com.assessment.riskmanagement.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Read/write split: {@code @Transactional(readOnly = true)} work goes to a replica pool, all other
+ * work to the primary. A lag check routes reads back to the primary whenever the replica falls
+ * behind by more than {@code max-lag-seconds} or cannot be queried. The default lag query reports
+ * 0 once the replica has replayed everything it received, since the age of the last replayed
+ * transaction keeps growing while the primary is idle.
+ * <p>
+ * The route is chosen when a transaction first touches its connection, and with open-in-view off
+ * nothing pins a connection to the request: each transaction picks its own. A read-only transaction
+ * that follows a write in the same request can therefore miss that write on the replica; reads that
+ * must see it run in a read-write transaction. A read-only method called inside a read-write
+ * transaction joins it and stays on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "risk-management.datasource.replica", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${risk-management.datasource.replica.max-lag-seconds:5}")
+    private double maxLagSeconds;
+
+    @Value("${risk-management.datasource.replica.lag-query:SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END}")
+    private String lagQuery;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(
+            @Value("${risk-management.datasource.replica.url}") String url,
+            @Value("${risk-management.datasource.replica.username:}") String username,
+            @Value("${risk-management.datasource.replica.password:}") String password,
+            @Value("${risk-management.datasource.replica.driver-class-name:}") String driverClassName,
+            @Value("${risk-management.datasource.replica.maximum-pool-size:10}") int maximumPoolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        if (!driverClassName.isEmpty()) {
+            config.setDriverClassName(driverClassName);
+        }
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setReadOnly(true);
+        return new HikariDataSource(config);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                                        @Qualifier("replicaDataSource") DataSource replica) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(@Qualifier("replicaDataSource") DataSource replica,
+                                           ReadWriteRoutingDataSource routingDataSource) {
+        return new ReplicaLagGuard(new JdbcTemplate(replica), routingDataSource, lagQuery, maxLagSeconds);
+    }
+}
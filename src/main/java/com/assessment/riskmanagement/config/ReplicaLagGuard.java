@@ -0,0 +1,48 @@
+package com.assessment.riskmanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Periodically measures replica lag and switches read-only routing back to the primary while the
+ * replica is too far behind or unreachable.
+ */
+public class ReplicaLagGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagGuard.class);
+
+    private final JdbcTemplate replica;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+
+    public ReplicaLagGuard(JdbcTemplate replica, ReadWriteRoutingDataSource routingDataSource,
+                           String lagQuery, double maxLagSeconds) {
+        this.replica = replica;
+        this.routingDataSource = routingDataSource;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${risk-management.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        boolean available;
+        try {
+            Double lagSeconds = replica.queryForObject(lagQuery, Double.class);
+            available = lagSeconds != null && lagSeconds <= maxLagSeconds;
+            if (!available) {
+                logger.warn("Replica lag {}s exceeds {}s, routing reads to primary", lagSeconds, maxLagSeconds);
+            }
+        } catch (Exception e) {
+            available = false;
+            logger.warn("Replica lag check failed, routing reads to primary: {}", e.getMessage());
+        }
+
+        if (available && !routingDataSource.isReplicaAvailable()) {
+            logger.info("Replica back within lag budget, routing reads to replica");
+        }
+        routingDataSource.setReplicaAvailable(available);
+    }
+}
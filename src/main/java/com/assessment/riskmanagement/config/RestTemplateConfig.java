@@ -1,8 +1,15 @@
 package com.assessment.riskmanagement.config;
 
+import com.assessment.riskmanagement.client.KrakenMetricsInterceptor;
+import com.assessment.riskmanagement.service.LatencyService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -12,8 +19,41 @@ import java.time.Duration;
 @Configuration
 public class RestTemplateConfig implements WebMvcConfigurer {
 
+    // Observation name of Kraken HTTP calls; only their spans are kept, the timing is kraken.client.requests
+    static final String KRAKEN_OBSERVATION = "kraken.http.client";
+
     @Bean
+    @Primary
     public RestTemplate restTemplate() {
+        return newRestTemplate();
+    }
+
+    /**
+     * Same settings as {@link #restTemplate()}, with every call recorded by {@link KrakenMetricsInterceptor}
+     * and traced.
+     */
+    @Bean
+    public RestTemplate krakenRestTemplate(MeterRegistry meterRegistry, ObservationRegistry observationRegistry,
+                                           LatencyService latencyService) {
+        // A separate instance: calling restTemplate() here would return the shared bean through the proxy
+        RestTemplate restTemplate = newRestTemplate();
+        restTemplate.getInterceptors().add(new KrakenMetricsInterceptor(meterRegistry, latencyService));
+        // Client spans for each call, with the trace context propagated in request headers
+        restTemplate.setObservationRegistry(observationRegistry);
+        restTemplate.setObservationConvention(new DefaultClientRequestObservationConvention(KRAKEN_OBSERVATION));
+        return restTemplate;
+    }
+
+    /**
+     * Drops the timers the Kraken observation would otherwise register next to
+     * {@code kraken.client.requests}, which already times every call with richer tags.
+     */
+    @Bean
+    public MeterFilter krakenObservationMeterFilter() {
+        return MeterFilter.denyNameStartsWith(KRAKEN_OBSERVATION);
+    }
+
+    private RestTemplate newRestTemplate() {
         HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory();
         factory.setConnectTimeout(Duration.ofSeconds(10));
         factory.setConnectionRequestTimeout(Duration.ofSeconds(10));
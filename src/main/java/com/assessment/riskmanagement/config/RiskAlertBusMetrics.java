@@ -0,0 +1,38 @@
+package com.assessment.riskmanagement.config;
+
+import com.assessment.riskmanagement.event.RiskAlertBus;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exports the alert bus counters: alerts published, dropped on a full ring and dead-lettered, plus
+ * the backlog of the slowest consumer. A non-zero drop or dead-letter count means breach events are
+ * missing from {@code risk_events}.
+ */
+@Component
+public class RiskAlertBusMetrics implements MeterBinder {
+
+    private final RiskAlertBus riskAlertBus;
+
+    public RiskAlertBusMetrics(RiskAlertBus riskAlertBus) {
+        this.riskAlertBus = riskAlertBus;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("risk.alerts", riskAlertBus, RiskAlertBus::getPublishedCount)
+                .tag("outcome", "published")
+                .register(registry);
+        FunctionCounter.builder("risk.alerts", riskAlertBus, RiskAlertBus::getDroppedCount)
+                .tag("outcome", "dropped")
+                .register(registry);
+        FunctionCounter.builder("risk.alerts", riskAlertBus, RiskAlertBus::getDeadLetteredCount)
+                .tag("outcome", "dead_lettered")
+                .register(registry);
+        Gauge.builder("risk.alerts.backlog", riskAlertBus, RiskAlertBus::getBacklog)
+                .register(registry);
+    }
+}
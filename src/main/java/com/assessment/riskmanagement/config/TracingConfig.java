@@ -0,0 +1,20 @@
+package com.assessment.riskmanagement.config;
+
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables {@code @Observed} on service methods. HTTP server spans, scheduled tasks and the
+ * Kraken RestTemplate are observed by Spring itself; repository calls by
+ * {@link com.assessment.riskmanagement.tracing.RepositoryObservationAspect}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+}
@@ -1,16 +1,23 @@
 package com.assessment.riskmanagement.controller;
 
+import com.assessment.riskmanagement.profiling.FlightRecordingService;
+import com.assessment.riskmanagement.profiling.RequestResourceFilter;
+import com.assessment.riskmanagement.service.LatencyService;
 import com.assessment.riskmanagement.service.MonitoringService;
+import com.assessment.riskmanagement.tracing.SlowestTraceExporter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -21,6 +28,18 @@ public class MonitoringController {
     @Autowired
     private MonitoringService monitoringService;
 
+    @Autowired
+    private SlowestTraceExporter slowestTraceExporter;
+
+    @Autowired
+    private FlightRecordingService flightRecordingService;
+
+    @Autowired
+    private LatencyService latencyService;
+
+    @Autowired
+    private ObjectProvider<RequestResourceFilter> requestResourceFilter;
+
     @GetMapping("/status")
     @Operation(
         summary = "Get monitoring status",
@@ -84,6 +103,105 @@ public class MonitoringController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/latency")
+    @Operation(
+        summary = "Latency SLO dashboard",
+        description = "HDR histogram percentiles in milliseconds over 1m, 5m and 1h windows for webhooks, per-user risk checks, sweeps, time to flat after a breach and Kraken calls per endpoint"
+    )
+    public ResponseEntity<Map<String, Object>> getLatency() {
+        Map<String, Object> response = Map.of(
+                "status", "success",
+                "latency", latencyService.getLatencySnapshot()
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/traces/slowest")
+    @Operation(
+        summary = "Slowest traces",
+        description = "The slowest complete traces recorded since startup, slowest first, with each span's offset and duration"
+    )
+    public ResponseEntity<Map<String, Object>> getSlowestTraces(
+            @RequestParam(defaultValue = "10") int limit) {
+        List<Map<String, Object>> traces = slowestTraceExporter.getSlowestTraces(Math.max(0, limit));
+
+        Map<String, Object> response = Map.of(
+                "status", "success",
+                "count", traces.size(),
+                "traces", traces
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/traces/slowest")
+    @Operation(summary = "Reset slowest traces", description = "Clear the recorded slowest traces")
+    public ResponseEntity<Map<String, Object>> clearSlowestTraces() {
+        slowestTraceExporter.clear();
+
+        Map<String, Object> response = Map.of(
+                "status", "success",
+                "message", "Slowest traces cleared"
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/profiling/start")
+    @Operation(summary = "Start flight recording", description = "Start a JDK Flight Recorder recording with low-overhead production settings and the risk, signal and Kraken events")
+    public ResponseEntity<Map<String, Object>> startRecording() {
+        try {
+            return ResponseEntity.ok(flightRecordingService.start());
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = Map.of(
+                    "status", "error",
+                    "message", e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/profiling/stop")
+    @Operation(summary = "Stop flight recording", description = "Stop the running recording and dump it to a .jfr file on local disk")
+    public ResponseEntity<Map<String, Object>> stopRecording() {
+        try {
+            return ResponseEntity.ok(flightRecordingService.stop());
+        } catch (Exception e) {
+            Map<String, Object> errorResponse = Map.of(
+                    "status", "error",
+                    "message", e.getMessage()
+            );
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        }
+    }
+
+    @GetMapping("/profiling")
+    @Operation(summary = "Flight recording status", description = "State of the on-demand flight recording")
+    public ResponseEntity<Map<String, Object>> getRecordingStatus() {
+        return ResponseEntity.ok(flightRecordingService.getStatus());
+    }
+
+    @GetMapping("/profiling/requests")
+    @Operation(summary = "Per-route allocation and CPU", description = "Mean and max heap bytes allocated and CPU time per request for each route, heaviest allocators first. Requires risk-management.profiling.request-resources.enabled")
+    public ResponseEntity<Map<String, Object>> getRequestResources() {
+        RequestResourceFilter filter = requestResourceFilter.getIfAvailable();
+        if (filter == null) {
+            Map<String, Object> errorResponse = Map.of(
+                    "status", "error",
+                    "message", "Per-request resource accounting is disabled"
+            );
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        }
+
+        Map<String, Object> response = Map.of(
+                "status", "success",
+                "routes", filter.getRoutes()
+        );
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/health")
     @Operation(
         summary = "Health check",
@@ -1,9 +1,13 @@
 package com.assessment.riskmanagement.controller;
 
+import com.assessment.riskmanagement.dto.CursorPage;
 import com.assessment.riskmanagement.dto.TradingSignalRequest;
 import com.assessment.riskmanagement.entity.Order;
 import com.assessment.riskmanagement.entity.User;
+import com.assessment.riskmanagement.journal.SignalJournal;
 import com.assessment.riskmanagement.repository.OrderRepository;
+import com.assessment.riskmanagement.repository.projection.OrderSummary;
+import com.assessment.riskmanagement.service.LatencyService;
 import com.assessment.riskmanagement.service.OrderService;
 import com.assessment.riskmanagement.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,11 +18,13 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +42,12 @@ public class OrderController {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ObjectProvider<SignalJournal> signalJournal;
+
+    @Autowired
+    private LatencyService latencyService;
+
     @PostMapping("/webhook")
     @Operation(
         summary = "Process trading signal",
@@ -170,8 +182,24 @@ public class OrderController {
                 )
             )
             @Valid @RequestBody TradingSignalRequest signal) {
+        long startNanos = System.nanoTime();
+        // Journal the signal durably before doing any work on it, so it is replayed if we die mid-way
+        SignalJournal journal = signalJournal.getIfAvailable();
+        Long journalSequence = null;
+        if (journal != null) {
+            try {
+                journalSequence = journal.append(signal);
+            } catch (Exception e) {
+                Map<String, Object> errorResponse = Map.of(
+                        "status", "error",
+                        "message", "Signal could not be journaled: " + e.getMessage()
+                );
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
+            }
+        }
+
         try {
-            Map<String, Object> result = orderService.processTradingSignal(signal);
+            Map<String, Object> result = orderService.processTradingSignal(signal, journalSequence);
 
             HttpStatus status = "success".equals(result.get("status")) ?
                     HttpStatus.OK : HttpStatus.BAD_REQUEST;
@@ -184,21 +212,28 @@ public class OrderController {
                     "message", e.getMessage()
             );
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } finally {
+            if (journalSequence != null) {
+                journal.markProcessed(journalSequence);
+            }
+            latencyService.record(LatencyService.WEBHOOK, System.nanoTime() - startNanos);
         }
     }
 
     @GetMapping("/user/{clientId}")
-    @Operation(summary = "Get user orders", description = "Retrieve all orders for a specific user")
+    @Operation(summary = "Get user orders", description = "Retrieve a page of orders for a specific user, newest first. Pass next_cursor back as cursor to fetch the following page.")
     public ResponseEntity<Map<String, Object>> getUserOrders(
-            @Parameter(description = "Client ID of the user") @PathVariable String clientId) {
+            @Parameter(description = "Client ID of the user") @PathVariable String clientId,
+            @Parameter(description = "Cursor returned as next_cursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 200)") @RequestParam(required = false) Integer limit) {
         try {
-            List<Order> orders = orderService.getUserOrders(clientId);
-            
-            Map<String, Object> response = Map.of(
-                    "status", "success",
-                    "orders", orders,
-                    "count", orders.size()
-            );
+            CursorPage<OrderSummary> page = orderService.getUserOrders(clientId, cursor, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("orders", page.getItems());
+            response.put("count", page.getItems().size());
+            response.put("next_cursor", page.getNextCursor());
             
             return ResponseEntity.ok(response);
             
@@ -407,41 +442,7 @@ public class OrderController {
             User user = userService.getUserEntityByClientId(clientId)
                     .orElseThrow(() -> new RuntimeException("User not found with client ID: " + clientId));
 
-            List<Order> allOrders = orderService.getUserOrders(clientId);
-
-            // Calculate statistics
-            long totalOrders = allOrders.size();
-            long openOrders = allOrders.stream().filter(o -> o.getStatus().name().equals("OPEN")).count();
-            long closedOrders = allOrders.stream().filter(o -> o.getStatus().name().equals("CLOSED")).count();
-            long cancelledOrders = allOrders.stream().filter(o -> o.getStatus().name().equals("CANCELLED")).count();
-            long failedOrders = allOrders.stream().filter(o -> o.getStatus().name().equals("FAILED")).count();
-
-            double totalVolume = allOrders.stream()
-                    .mapToDouble(o -> o.getQuantity().doubleValue())
-                    .sum();
-
-            List<String> symbolsTraded = allOrders.stream()
-                    .map(Order::getSymbol)
-                    .distinct()
-                    .sorted()
-                    .toList();
-
-            List<String> strategiesUsed = allOrders.stream()
-                    .map(Order::getStrategy)
-                    .distinct()
-                    .sorted()
-                    .toList();
-
-            Map<String, Object> statistics = Map.of(
-                    "total_orders", totalOrders,
-                    "open_orders", openOrders,
-                    "closed_orders", closedOrders,
-                    "cancelled_orders", cancelledOrders,
-                    "failed_orders", failedOrders,
-                    "total_volume", totalVolume,
-                    "symbols_traded", symbolsTraded,
-                    "strategies_used", strategiesUsed
-            );
+            Map<String, Object> statistics = orderService.getOrderStatistics(user);
 
             Map<String, Object> response = Map.of(
                     "status", "success",
@@ -1,7 +1,8 @@
 package com.assessment.riskmanagement.controller;
 
+import com.assessment.riskmanagement.dto.CursorPage;
 import com.assessment.riskmanagement.dto.RiskCheckResponse;
-import com.assessment.riskmanagement.entity.RiskEvent;
+import com.assessment.riskmanagement.repository.projection.RiskEventSummary;
 import com.assessment.riskmanagement.service.RiskService;
 import com.assessment.riskmanagement.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -198,19 +200,27 @@ public class RiskController {
     }
 
     @GetMapping("/events")
-    @Operation(summary = "Get all risk events", description = "Retrieve all risk events across all users")
-    public ResponseEntity<Map<String, Object>> getAllRiskEvents() {
+    @Operation(summary = "Get all risk events", description = "Retrieve a page of risk events across all users, newest first")
+    public ResponseEntity<Map<String, Object>> getAllRiskEvents(
+            @Parameter(description = "Cursor returned as next_cursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 200)") @RequestParam(required = false) Integer limit) {
         try {
-            List<RiskEvent> events = riskService.getAllRiskEvents();
-            
-            Map<String, Object> response = Map.of(
-                    "status", "success",
-                    "events", events,
-                    "count", events.size()
-            );
+            CursorPage<RiskEventSummary> page = riskService.getAllRiskEvents(cursor, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("events", page.getItems());
+            response.put("count", page.getItems().size());
+            response.put("next_cursor", page.getNextCursor());
             
             return ResponseEntity.ok(response);
             
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> errorResponse = Map.of(
+                    "status", "error",
+                    "message", e.getMessage()
+            );
+            return ResponseEntity.badRequest().body(errorResponse);
         } catch (Exception e) {
             Map<String, Object> errorResponse = Map.of(
                     "status", "error",
@@ -221,17 +231,19 @@ public class RiskController {
     }
 
     @GetMapping("/events/{clientId}")
-    @Operation(summary = "Get user risk events", description = "Retrieve risk events for a specific user")
+    @Operation(summary = "Get user risk events", description = "Retrieve a page of risk events for a specific user, newest first")
     public ResponseEntity<Map<String, Object>> getUserRiskEvents(
-            @Parameter(description = "Client ID of the user") @PathVariable String clientId) {
+            @Parameter(description = "Client ID of the user") @PathVariable String clientId,
+            @Parameter(description = "Cursor returned as next_cursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 200)") @RequestParam(required = false) Integer limit) {
         try {
-            List<RiskEvent> events = riskService.getUserRiskEvents(clientId);
-            
-            Map<String, Object> response = Map.of(
-                    "status", "success",
-                    "events", events,
-                    "count", events.size()
-            );
+            CursorPage<RiskEventSummary> page = riskService.getUserRiskEvents(clientId, cursor, limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("status", "success");
+            response.put("events", page.getItems());
+            response.put("count", page.getItems().size());
+            response.put("next_cursor", page.getNextCursor());
             
             return ResponseEntity.ok(response);
             
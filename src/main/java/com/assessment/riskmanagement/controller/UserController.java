@@ -1,5 +1,6 @@
 package com.assessment.riskmanagement.controller;
 
+import com.assessment.riskmanagement.dto.CursorPage;
 import com.assessment.riskmanagement.dto.UserRegistrationRequest;
 import com.assessment.riskmanagement.dto.UserResponse;
 import com.assessment.riskmanagement.service.UserService;
@@ -137,10 +138,22 @@ public class UserController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all users", description = "Retrieve all registered users")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    @Operation(summary = "Get all users", description = "Retrieve a page of registered users, newest first. The cursor for the next page is returned in the X-Next-Cursor header.")
+    public ResponseEntity<List<UserResponse>> getAllUsers(
+            @Parameter(description = "Cursor returned in X-Next-Cursor by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (default 50, max 200)") @RequestParam(required = false) Integer limit) {
+        try {
+            CursorPage<UserResponse> page = userService.getAllUsers(cursor, limit);
+
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasNext()) {
+                response.header("X-Next-Cursor", page.getNextCursor());
+            }
+            return response.body(page.getItems());
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @GetMapping("/{clientId}")
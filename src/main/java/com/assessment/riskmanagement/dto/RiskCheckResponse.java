@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 
 @Schema(description = "Risk check response")
@@ -74,7 +75,7 @@ public class RiskCheckResponse {
         this.status = status;
         this.message = message;
         this.riskStatus = riskStatus;
-        this.timestamp = LocalDateTime.now();
+        this.timestamp = LocalDateTime.now(ZoneOffset.UTC);
     }
 
     // Getters and Setters
@@ -0,0 +1,54 @@
+package com.assessment.riskmanagement.dto.kraken;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class KrakenOrderStatusResponse {
+
+    private String result;
+    private String error;
+    private List<OrderStatus> orders;
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class OrderStatus {
+        private Order order;
+        // ENTERED_BOOK, FULLY_EXECUTED, REJECTED, CANCELLED, TRIGGER_PLACED or TRIGGER_ACTIVATION_FAILURE
+        private String status;
+        private String updateReason;
+
+        // Getters and Setters
+        public Order getOrder() { return order; }
+        public void setOrder(Order order) { this.order = order; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public String getUpdateReason() { return updateReason; }
+        public void setUpdateReason(String updateReason) { this.updateReason = updateReason; }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Order {
+        private String orderId;
+        private String symbol;
+
+        // Getters and Setters
+        public String getOrderId() { return orderId; }
+        public void setOrderId(String orderId) { this.orderId = orderId; }
+
+        public String getSymbol() { return symbol; }
+        public void setSymbol(String symbol) { this.symbol = symbol; }
+    }
+
+    // Getters and Setters
+    public String getResult() { return result; }
+    public void setResult(String result) { this.result = result; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public List<OrderStatus> getOrders() { return orders; }
+    public void setOrders(List<OrderStatus> orders) { this.orders = orders; }
+}
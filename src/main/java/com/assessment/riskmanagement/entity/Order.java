@@ -1,5 +1,7 @@
 package com.assessment.riskmanagement.entity;
 
+import com.assessment.riskmanagement.entity.id.UuidV7;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -18,12 +20,14 @@ import java.util.UUID;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
+    // Lazy and never serialized: open-in-view is off, so the session is closed by the time Jackson runs
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @NotNull
+    @JsonIgnore
     private User user;
 
     @Column(name = "symbol", nullable = false, length = 20)
@@ -83,6 +87,11 @@ public class Order {
     @Column(name = "executed_at")
     private LocalDateTime executedAt;
 
+    // Journal sequence of the webhook signal that placed this order, so a replayed signal can tell
+    // that its order was already placed before the crash
+    @Column(name = "journal_sequence")
+    private Long journalSequence;
+
     // Constructors
     public Order() {}
 
@@ -146,6 +155,9 @@ public class Order {
     public LocalDateTime getExecutedAt() { return executedAt; }
     public void setExecutedAt(LocalDateTime executedAt) { this.executedAt = executedAt; }
 
+    public Long getJournalSequence() { return journalSequence; }
+    public void setJournalSequence(Long journalSequence) { this.journalSequence = journalSequence; }
+
     @Override
     public String toString() {
         return "Order{" +
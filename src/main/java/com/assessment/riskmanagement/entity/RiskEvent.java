@@ -1,5 +1,7 @@
 package com.assessment.riskmanagement.entity;
 
+import com.assessment.riskmanagement.entity.id.UuidV7;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -16,12 +18,14 @@ import java.util.UUID;
 public class RiskEvent {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
+    // Lazy and never serialized: open-in-view is off, so the session is closed by the time Jackson runs
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @NotNull
+    @JsonIgnore
     private User user;
 
     @Enumerated(EnumType.STRING)
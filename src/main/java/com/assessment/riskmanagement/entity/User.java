@@ -1,8 +1,13 @@
 package com.assessment.riskmanagement.entity;
 
+import com.assessment.riskmanagement.entity.id.UuidV7;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -16,12 +21,25 @@ import java.util.UUID;
 @Entity
 @Table(name = "users")
 @EntityListeners(AuditingEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
+@NaturalIdCache(region = User.CLIENT_ID_CACHE_REGION)
 public class User {
 
+    public static final String CACHE_REGION = "users";
+    public static final String CLIENT_ID_CACHE_REGION = "users-by-client-id";
+    // Query space declared by the last_risk_check stamp; matches no entity table, so it evicts no region
+    public static final String RISK_CHECK_QUERY_SPACE = "users_last_risk_check";
+    // Query space declared by the expired-restriction reset, which evicts the users it touches one by one
+    public static final String TRADING_RESET_QUERY_SPACE = "users_trading_reset";
+    // Fixed hash space the time-sliced risk sweep divides into slices
+    public static final int SWEEP_BUCKETS = 1024;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7
     private UUID id;
 
+    @NaturalId
     @Column(name = "client_id", unique = true, nullable = false, length = 50)
     @NotBlank
     private String clientId;
@@ -54,9 +72,14 @@ public class User {
     @NotNull
     private Boolean tradingEnabled = true;
 
-    @Column(name = "last_risk_check")
+    // Written only by UserRepository.stampLastRiskCheck, which bypasses the cache regions; the cached
+    // copy may be stale, and entity flushes never write it back
+    @Column(name = "last_risk_check", insertable = false, updatable = false)
     private LocalDateTime lastRiskCheck;
 
+    @Column(name = "sweep_bucket", nullable = false)
+    private Short sweepBucket;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -80,6 +103,14 @@ public class User {
         this.krakenPrivateKey = krakenPrivateKey;
     }
 
+    // Migration V7's java_string_hash computes the same bucket for rows written outside the entity
+    @PrePersist
+    void assignSweepBucket() {
+        if (sweepBucket == null) {
+            sweepBucket = (short) Math.floorMod(clientId.hashCode(), SWEEP_BUCKETS);
+        }
+    }
+
     // Getters and Setters
     public UUID getId() { return id; }
     public void setId(UUID id) { this.id = id; }
@@ -112,7 +143,8 @@ public class User {
     public void setTradingEnabled(Boolean tradingEnabled) { this.tradingEnabled = tradingEnabled; }
 
     public LocalDateTime getLastRiskCheck() { return lastRiskCheck; }
-    public void setLastRiskCheck(LocalDateTime lastRiskCheck) { this.lastRiskCheck = lastRiskCheck; }
+
+    public Short getSweepBucket() { return sweepBucket; }
 
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
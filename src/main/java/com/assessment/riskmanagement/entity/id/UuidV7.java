@@ -0,0 +1,19 @@
+package com.assessment.riskmanagement.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a UUID identifier to be assigned a time-ordered version 7 UUID before insert.
+ * Replaces {@code @GeneratedValue(strategy = GenerationType.UUID)}, whose random v4 values
+ * scatter inserts across the primary key index.
+ */
+@IdGeneratorType(UuidV7Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface UuidV7 {
+}
@@ -0,0 +1,57 @@
+package com.assessment.riskmanagement.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends each dead-lettered alert as one JSON line, with the consumer and the error, so it can be
+ * inspected and replayed by hand. Falls back to the error log when the file cannot be written.
+ */
+@Component
+public class FileRiskAlertDeadLetter implements RiskAlertDeadLetter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileRiskAlertDeadLetter.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileRiskAlertDeadLetter(ObjectMapper objectMapper,
+                                   @Value("${risk-management.alerts.dead-letter.path:logs/risk-alerts-dead-letter.ndjson}") String path) throws IOException {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+        if (this.path.getParent() != null) {
+            Files.createDirectories(this.path.getParent());
+        }
+    }
+
+    @Override
+    public void deadLetter(String consumer, List<RiskAlert> alerts, Exception cause) {
+        StringBuilder lines = new StringBuilder();
+        try {
+            for (RiskAlert alert : alerts) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("consumer", consumer);
+                entry.put("error", String.valueOf(cause));
+                entry.put("alert", alert);
+                lines.append(objectMapper.writeValueAsString(entry)).append(System.lineSeparator());
+            }
+            Files.writeString(path, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            logger.error("Dead-lettered {} alerts from consumer {} to {}: {}", alerts.size(), consumer, path, cause.toString());
+        } catch (IOException e) {
+            logger.error("Could not write dead letter file {}, alerts from consumer {} are only in this log: {}",
+                    path, consumer, alerts, cause);
+        }
+    }
+}
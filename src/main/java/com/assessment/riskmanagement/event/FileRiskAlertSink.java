@@ -0,0 +1,43 @@
+package com.assessment.riskmanagement.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends each alert as one JSON line to a local file.
+ */
+@Component
+@ConditionalOnProperty(prefix = "risk-management.alerts.file", name = "enabled", havingValue = "true")
+public class FileRiskAlertSink implements RiskAlertSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+
+    public FileRiskAlertSink(ObjectMapper objectMapper,
+                             @Value("${risk-management.alerts.file.path:logs/risk-alerts.ndjson}") String path) throws IOException {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path);
+        if (this.path.getParent() != null) {
+            Files.createDirectories(this.path.getParent());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public void send(RiskAlert alert) throws IOException {
+        String line = objectMapper.writeValueAsString(alert) + System.lineSeparator();
+        Files.writeString(path, line, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
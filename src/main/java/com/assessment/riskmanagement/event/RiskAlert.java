@@ -0,0 +1,109 @@
+package com.assessment.riskmanagement.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Immutable record of a risk breach or trading reset, published on the {@link RiskAlertBus}
+ * and consumed off the monitoring thread.
+ */
+public class RiskAlert {
+
+    public enum Type {
+        BREACH,
+        RESET
+    }
+
+    private final Type type;
+    private final UUID userId;
+    private final String clientId;
+    private final BigDecimal currentBalance;
+    private final BigDecimal initialBalance;
+    private final BigDecimal riskThreshold;
+    private final String riskType;
+    private final BigDecimal lossAmount;
+    private final BigDecimal lossPercentage;
+    private final List<String> closedOrders;
+    private final LocalDateTime tradingDisabledUntil;
+    private final LocalDateTime occurredAt;
+
+    private RiskAlert(Type type, UUID userId, String clientId, BigDecimal currentBalance, BigDecimal initialBalance,
+                      BigDecimal riskThreshold, String riskType, BigDecimal lossAmount, BigDecimal lossPercentage,
+                      List<String> closedOrders, LocalDateTime tradingDisabledUntil, LocalDateTime occurredAt) {
+        this.type = type;
+        this.userId = userId;
+        this.clientId = clientId;
+        this.currentBalance = currentBalance;
+        this.initialBalance = initialBalance;
+        this.riskThreshold = riskThreshold;
+        this.riskType = riskType;
+        this.lossAmount = lossAmount;
+        this.lossPercentage = lossPercentage;
+        this.closedOrders = closedOrders;
+        this.tradingDisabledUntil = tradingDisabledUntil;
+        this.occurredAt = occurredAt;
+    }
+
+    public static RiskAlert breach(UUID userId, String clientId, BigDecimal currentBalance, BigDecimal initialBalance,
+                                   BigDecimal riskThreshold, String riskType, BigDecimal lossAmount,
+                                   BigDecimal lossPercentage, List<String> closedOrders,
+                                   LocalDateTime tradingDisabledUntil) {
+        return new RiskAlert(Type.BREACH, userId, clientId, currentBalance, initialBalance, riskThreshold, riskType,
+                lossAmount, lossPercentage, List.copyOf(closedOrders), tradingDisabledUntil, LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    public static RiskAlert reset(UUID userId, String clientId) {
+        return new RiskAlert(Type.RESET, userId, clientId, null, null, null, null,
+                null, null, List.of(), null, LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    public Type getType() { return type; }
+
+    @JsonProperty("user_id")
+    public UUID getUserId() { return userId; }
+
+    @JsonProperty("client_id")
+    public String getClientId() { return clientId; }
+
+    @JsonProperty("current_balance")
+    public BigDecimal getCurrentBalance() { return currentBalance; }
+
+    @JsonProperty("initial_balance")
+    public BigDecimal getInitialBalance() { return initialBalance; }
+
+    @JsonProperty("risk_threshold")
+    public BigDecimal getRiskThreshold() { return riskThreshold; }
+
+    @JsonProperty("risk_type")
+    public String getRiskType() { return riskType; }
+
+    @JsonProperty("loss_amount")
+    public BigDecimal getLossAmount() { return lossAmount; }
+
+    @JsonProperty("loss_percentage")
+    public BigDecimal getLossPercentage() { return lossPercentage; }
+
+    @JsonProperty("closed_orders")
+    public List<String> getClosedOrders() { return closedOrders; }
+
+    @JsonProperty("trading_disabled_until")
+    public LocalDateTime getTradingDisabledUntil() { return tradingDisabledUntil; }
+
+    @JsonProperty("occurred_at")
+    public LocalDateTime getOccurredAt() { return occurredAt; }
+
+    @Override
+    public String toString() {
+        return "RiskAlert{" +
+                "type=" + type +
+                ", clientId='" + clientId + '\'' +
+                ", lossAmount=" + lossAmount +
+                ", occurredAt=" + occurredAt +
+                '}';
+    }
+}
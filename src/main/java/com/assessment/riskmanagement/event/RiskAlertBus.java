@@ -0,0 +1,293 @@
+package com.assessment.riskmanagement.event;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.QueryTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLTransientException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-sized ring buffer in the style of the LMAX Disruptor. Publishers claim a sequence, write the
+ * slot and mark it available; each {@link RiskAlertConsumer} runs on its own thread, tracks its own
+ * sequence and drains every available slot as one batch. Publishing is a CAS plus three writes and
+ * never waits: when the slowest consumer is a full ring behind the alert is dropped and counted.
+ *
+ * <p>A batch that fails with a transient database error is retried with exponential backoff, up to
+ * {@code risk-management.alerts.max-attempts} attempts. Any other failure is treated as a poison alert
+ * (a user deleted since the breach, for example): the batch is replayed one alert at a time and only
+ * the alerts that still fail go to the {@link RiskAlertDeadLetter}, as does a batch that runs out of
+ * attempts. Either way the consumer moves on, so one bad alert cannot stall the ring. Slots every
+ * consumer has passed are cleared so consumed alerts are not kept reachable until the ring wraps.
+ *
+ * <p>The ring lives in memory only. Alerts still queued when the process dies are lost, and so are
+ * dropped and dead-lettered ones until they are replayed by hand. For breach alerts that means the
+ * {@code RiskEvent} row is never written, and {@code RiskService.resetDailyTrading} only re-enables
+ * users that have such a row, so the user stays disabled until trading is re-enabled manually.
+ */
+@Component
+public class RiskAlertBus {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskAlertBus.class);
+    private static final int MAX_BATCH = 256;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long RETRY_INITIAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RETRY_MAX_NANOS = TimeUnit.SECONDS.toNanos(5);
+    // Marks a slot whose alert is being replaced, so a concurrent clear cannot null the new alert
+    private static final long WRITING = -2;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<RiskAlert> slots;
+    // published[i] holds the sequence last written to slot i; its volatile write publishes the slot
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    // Highest sequence whose slot has been cleared after every consumer passed it
+    private final AtomicLong released = new AtomicLong(-1);
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final List<ConsumerWorker> workers = new ArrayList<>();
+    private final RiskAlertDeadLetter deadLetter;
+    private final int maxAttempts;
+
+    private volatile boolean running;
+
+    public RiskAlertBus(List<RiskAlertConsumer> consumers,
+                        RiskAlertDeadLetter deadLetter,
+                        @Value("${risk-management.alerts.ring-buffer-size:1024}") int requestedSize,
+                        @Value("${risk-management.alerts.max-attempts:6}") int maxAttempts) {
+        this.deadLetter = deadLetter;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedSize - 1)) << 1;
+        this.mask = capacity - 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        for (RiskAlertConsumer consumer : consumers) {
+            workers.add(new ConsumerWorker(consumer));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (ConsumerWorker worker : workers) {
+            worker.thread.start();
+        }
+        logger.info("Risk alert bus started: capacity {}, consumers {}", capacity,
+                workers.stream().map(w -> w.consumer.getName()).toList());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (ConsumerWorker worker : workers) {
+            // Wake a worker sleeping between retries so it gives up on the batch now
+            LockSupport.unpark(worker.thread);
+            try {
+                worker.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Hands the alert to every consumer without blocking. Returns false when the ring is full and the
+     * alert was dropped.
+     */
+    public boolean publish(RiskAlert alert) {
+        long current;
+        long sequence;
+        do {
+            current = claimed.get();
+            sequence = current + 1;
+            // Consumer sequences only move forward, so a slot found free here stays free after the CAS
+            if (sequence - capacity > minimumConsumerSequence()) {
+                dropped.incrementAndGet();
+                if (alert.getType() == RiskAlert.Type.BREACH) {
+                    // Without its risk event row the user is never re-enabled, so keep enough to do it by hand
+                    logger.error("Risk alert ring full, dropping {}", alert);
+                }
+                return false;
+            }
+        } while (!claimed.compareAndSet(current, sequence));
+
+        int index = (int) (sequence & mask);
+        published.set(index, WRITING);
+        slots.set(index, alert);
+        published.set(index, sequence);
+        return true;
+    }
+
+    public long getPublishedCount() {
+        return claimed.get() + 1;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getDeadLetteredCount() {
+        return deadLettered.get();
+    }
+
+    public long getBacklog() {
+        return claimed.get() - minimumConsumerSequence();
+    }
+
+    private long minimumConsumerSequence() {
+        long minimum = Long.MAX_VALUE;
+        for (ConsumerWorker worker : workers) {
+            minimum = Math.min(minimum, worker.sequence.get());
+        }
+        return minimum == Long.MAX_VALUE ? claimed.get() : minimum;
+    }
+
+    /**
+     * Clears slots that every consumer has passed. Any worker may call this; the CAS on the alert itself
+     * makes a clear racing with a publisher reusing the slot a no-op.
+     */
+    private void releaseConsumed() {
+        long from = released.get();
+        long upTo = minimumConsumerSequence();
+        if (upTo <= from || !released.compareAndSet(from, upTo)) {
+            return;
+        }
+        for (long s = from + 1; s <= upTo; s++) {
+            int index = (int) (s & mask);
+            RiskAlert alert = slots.get(index);
+            if (alert != null && published.get(index) == s) {
+                slots.compareAndSet(index, alert, null);
+            }
+        }
+    }
+
+    private final class ConsumerWorker implements Runnable {
+
+        private final RiskAlertConsumer consumer;
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final Thread thread;
+
+        private ConsumerWorker(RiskAlertConsumer consumer) {
+            this.consumer = consumer;
+            this.thread = new Thread(this, "risk-alert-" + consumer.getName());
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<RiskAlert> batch = new ArrayList<>(MAX_BATCH);
+            while (true) {
+                long last = sequence.get();
+                long next = last + 1;
+                while (batch.size() < MAX_BATCH && published.get((int) (next & mask)) == next) {
+                    batch.add(slots.get((int) (next & mask)));
+                    last = next++;
+                }
+
+                if (batch.isEmpty()) {
+                    if (!running) {
+                        return;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+
+                deliver(batch);
+                sequence.set(last);
+                batch.clear();
+                releaseConsumed();
+            }
+        }
+
+        private void deliver(List<RiskAlert> batch) {
+            Exception failure = attempt(batch);
+            if (failure == null) {
+                return;
+            }
+            if (batch.size() == 1 || isTransient(failure)) {
+                deadLetter(batch, failure);
+                return;
+            }
+            // One poison alert fails the whole batch, so find it by handing the alerts over one at a time
+            for (int i = 0; i < batch.size(); i++) {
+                List<RiskAlert> single = List.of(batch.get(i));
+                Exception singleFailure = attempt(single);
+                if (singleFailure == null) {
+                    continue;
+                }
+                if (isTransient(singleFailure)) {
+                    // The database went away mid-way; do not spend the retry budget once per remaining alert
+                    deadLetter(batch.subList(i, batch.size()), singleFailure);
+                    return;
+                }
+                deadLetter(single, singleFailure);
+            }
+        }
+
+        /**
+         * Calls the consumer, retrying transient failures with backoff. Returns null on success, otherwise
+         * the failure that ended the attempts.
+         */
+        private Exception attempt(List<RiskAlert> alerts) {
+            long backoff = RETRY_INITIAL_NANOS;
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    consumer.onBatch(alerts);
+                    if (attempt > 1) {
+                        logger.info("Risk alert consumer {} recovered after {} attempts", consumer.getName(), attempt);
+                    }
+                    return null;
+                } catch (Exception e) {
+                    if (!isTransient(e) || attempt >= maxAttempts || !running) {
+                        return e;
+                    }
+                    logger.warn("Risk alert consumer {} failed on {} alerts (attempt {}/{}), retrying in {} ms: {}",
+                            consumer.getName(), alerts.size(), attempt, maxAttempts,
+                            TimeUnit.NANOSECONDS.toMillis(backoff), e.getMessage());
+                    LockSupport.parkNanos(backoff);
+                    backoff = Math.min(backoff * 2, RETRY_MAX_NANOS);
+                }
+            }
+        }
+
+        private void deadLetter(List<RiskAlert> alerts, Exception cause) {
+            deadLettered.addAndGet(alerts.size());
+            try {
+                deadLetter.deadLetter(consumer.getName(), List.copyOf(alerts), cause);
+            } catch (Exception e) {
+                logger.error("Dead letter failed for {} alerts from consumer {}: {}", alerts.size(), consumer.getName(), alerts, e);
+            }
+        }
+    }
+
+    /**
+     * Failures worth retrying: Spring's transient data access exceptions (query timeouts, deadlock and
+     * lock acquisition losers) and JDBC transient errors such as a pool connection timeout while the
+     * database is unreachable, wherever they sit in the cause chain.
+     */
+    static boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.assessment.riskmanagement.event;
+
+import java.util.List;
+
+/**
+ * Handler run on a dedicated {@link RiskAlertBus} thread. Receives every published alert, in
+ * publication order, in batches of whatever has accumulated since the previous call.
+ */
+public interface RiskAlertConsumer {
+
+    String getName();
+
+    void onBatch(List<RiskAlert> alerts);
+}
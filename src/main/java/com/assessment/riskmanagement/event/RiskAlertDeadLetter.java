@@ -0,0 +1,12 @@
+package com.assessment.riskmanagement.event;
+
+import java.util.List;
+
+/**
+ * Destination for alerts a {@link RiskAlertConsumer} could not handle: the failure was not transient,
+ * or transient failures outlasted the retry budget. Called on the consumer's bus thread.
+ */
+public interface RiskAlertDeadLetter {
+
+    void deadLetter(String consumer, List<RiskAlert> alerts, Exception cause);
+}
@@ -0,0 +1,50 @@
+package com.assessment.riskmanagement.event;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Logs every alert and fans it out to the configured {@link RiskAlertSink}s. A failing sink is
+ * logged and skipped so it cannot hold back the others.
+ */
+@Component
+public class RiskAlertNotificationConsumer implements RiskAlertConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskAlertNotificationConsumer.class);
+
+    private final List<RiskAlertSink> sinks;
+
+    public RiskAlertNotificationConsumer(ObjectProvider<RiskAlertSink> sinks) {
+        this.sinks = sinks.orderedStream().toList();
+    }
+
+    @Override
+    public String getName() {
+        return "notification";
+    }
+
+    @Override
+    public void onBatch(List<RiskAlert> alerts) {
+        for (RiskAlert alert : alerts) {
+            if (alert.getType() == RiskAlert.Type.BREACH) {
+                logger.error("RISK ALERT: User {} exceeded daily risk limit. Loss: {} ({}%). Closed {} orders, trading disabled until {}",
+                        alert.getClientId(), alert.getLossAmount(), alert.getLossPercentage(),
+                        alert.getClosedOrders().size(), alert.getTradingDisabledUntil());
+            } else {
+                logger.info("Trading re-enabled for user {}", alert.getClientId());
+            }
+
+            for (RiskAlertSink sink : sinks) {
+                try {
+                    sink.send(alert);
+                } catch (Exception e) {
+                    logger.warn("Risk alert sink {} failed for user {}: {}", sink.getName(), alert.getClientId(), e.getMessage());
+                }
+            }
+        }
+    }
+}
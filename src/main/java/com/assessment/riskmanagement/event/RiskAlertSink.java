@@ -0,0 +1,12 @@
+package com.assessment.riskmanagement.event;
+
+/**
+ * Notification channel for risk alerts (file, webhook, ...). Sinks are called from the
+ * notification consumer thread, never from the monitoring thread.
+ */
+public interface RiskAlertSink {
+
+    String getName();
+
+    void send(RiskAlert alert) throws Exception;
+}
@@ -0,0 +1,75 @@
+package com.assessment.riskmanagement.event;
+
+import com.assessment.riskmanagement.entity.RiskEvent;
+import com.assessment.riskmanagement.entity.RiskEventType;
+import com.assessment.riskmanagement.repository.RiskEventRepository;
+import com.assessment.riskmanagement.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes a {@link RiskEvent} row for every breach alert, one transaction per drained batch.
+ */
+@Component
+public class RiskEventPersistenceConsumer implements RiskAlertConsumer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RiskEventPersistenceConsumer.class);
+
+    @Autowired
+    private RiskEventRepository riskEventRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String getName() {
+        return "persistence";
+    }
+
+    @Override
+    @Transactional
+    public void onBatch(List<RiskAlert> alerts) {
+        List<RiskEvent> events = new ArrayList<>(alerts.size());
+        for (RiskAlert alert : alerts) {
+            if (alert.getType() == RiskAlert.Type.BREACH) {
+                events.add(toRiskEvent(alert));
+            }
+        }
+        if (!events.isEmpty()) {
+            riskEventRepository.saveAll(events);
+            logger.debug("Persisted {} risk events", events.size());
+        }
+    }
+
+    private RiskEvent toRiskEvent(RiskAlert alert) {
+        RiskEvent riskEvent = new RiskEvent(userRepository.getReferenceById(alert.getUserId()),
+                RiskEventType.DAILY_RISK_EXCEEDED,
+                "Daily risk limit exceeded: " + alert.getRiskType() + " threshold " + alert.getRiskThreshold());
+        riskEvent.setCurrentBalance(alert.getCurrentBalance());
+        riskEvent.setInitialBalance(alert.getInitialBalance());
+        riskEvent.setRiskThreshold(alert.getRiskThreshold());
+        riskEvent.setLossAmount(alert.getLossAmount());
+        riskEvent.setLossPercentage(alert.getLossPercentage());
+        riskEvent.setTradingDisabledUntil(alert.getTradingDisabledUntil());
+
+        if (!alert.getClosedOrders().isEmpty()) {
+            try {
+                riskEvent.setOrdersClosed(objectMapper.writeValueAsString(alert.getClosedOrders()));
+            } catch (JsonProcessingException e) {
+                logger.warn("Failed to serialize closed orders: {}", e.getMessage());
+            }
+        }
+        return riskEvent;
+    }
+}
@@ -0,0 +1,33 @@
+package com.assessment.riskmanagement.event;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * POSTs each alert as JSON to a configured URL.
+ */
+@Component
+@ConditionalOnProperty(prefix = "risk-management.alerts.webhook", name = "enabled", havingValue = "true")
+public class WebhookRiskAlertSink implements RiskAlertSink {
+
+    private final RestTemplate restTemplate;
+    private final String url;
+
+    public WebhookRiskAlertSink(RestTemplate restTemplate,
+                                @Value("${risk-management.alerts.webhook.url}") String url) {
+        this.restTemplate = restTemplate;
+        this.url = url;
+    }
+
+    @Override
+    public String getName() {
+        return "webhook";
+    }
+
+    @Override
+    public void send(RiskAlert alert) {
+        restTemplate.postForEntity(url, alert, Void.class);
+    }
+}
@@ -0,0 +1,390 @@
+package com.assessment.riskmanagement.journal;
+
+import com.assessment.riskmanagement.dto.TradingSignalRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal of accepted trading signals on memory-mapped segment files, so a signal survives
+ * a crash between acknowledgement and the end of order processing without a database write on the
+ * accept path.
+ * <p>
+ * Record layout: {@code int length | int crc32c | long sequence | byte type | payload}, where the CRC
+ * covers sequence, type and payload. SIGNAL records carry the append time in epoch milliseconds followed
+ * by the request as JSON; PROCESSED records carry the sequence of the signal they complete. Appenders return once their record has been forced, and
+ * concurrent appenders share a single {@code force} (group commit). PROCESSED records are not forced:
+ * mapped pages survive a process crash, and losing one to a power failure only causes a replay.
+ * <p>
+ * A checkpoint file holds the highest sequence below which every signal is processed; segments wholly
+ * below it are deleted. On startup everything after the checkpoint is scanned, stopping at the first
+ * torn, out-of-sequence or unknown-type record, and signals without a PROCESSED record are handed to
+ * {@link SignalJournalReplayer}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "risk-management.journal", name = "enabled", havingValue = "true")
+public class SignalJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignalJournal.class);
+    private static final int HEADER_BYTES = 17;
+    private static final byte TYPE_PROCESSED = 2;
+    private static final byte TYPE_SIGNAL = 3;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int segmentSize;
+
+    private final Object appendLock = new Object();
+    private final Object forceLock = new Object();
+    // Signal sequences appended but not yet processed
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private final Deque<Segment> sealedSegments = new ConcurrentLinkedDeque<>();
+    private final Map<Long, RecoveredSignal> recovered = new LinkedHashMap<>();
+
+    private volatile Segment active;
+    private long nextSequence;
+    private volatile long writtenSequence = -1;
+    private volatile long durableSequence = -1;
+    private volatile long checkpointedSequence = -1;
+
+    public SignalJournal(ObjectMapper objectMapper,
+                         @Value("${risk-management.journal.directory:data/signal-journal}") String directory,
+                         @Value("${risk-management.journal.segment-size-bytes:67108864}") int segmentSize) {
+        this.objectMapper = objectMapper;
+        this.directory = Path.of(directory);
+        this.segmentSize = segmentSize;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(directory);
+        checkpointedSequence = readCheckpoint();
+
+        List<Path> segmentPaths;
+        try (Stream<Path> files = Files.list(directory)) {
+            segmentPaths = files.filter(p -> p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+
+        long expected = checkpointedSequence + 1;
+        for (Path path : segmentPaths) {
+            Segment segment = Segment.open(path, segmentSize);
+            if (active != null && segment.firstSequence != expected) {
+                logger.warn("Signal journal gap before {}: expected sequence {}", path.getFileName(), expected);
+            }
+            expected = recover(segment);
+            if (active != null) {
+                sealedSegments.add(active);
+            }
+            active = segment;
+        }
+
+        nextSequence = Math.max(expected, checkpointedSequence + 1);
+        writtenSequence = nextSequence - 1;
+        durableSequence = writtenSequence;
+        if (active == null) {
+            active = Segment.open(segmentPath(nextSequence), segmentSize);
+        }
+
+        inFlight.addAll(recovered.keySet());
+        logger.info("Signal journal opened at {}: checkpoint {}, next sequence {}, {} signals to replay",
+                directory, checkpointedSequence, nextSequence, recovered.size());
+    }
+
+    @PreDestroy
+    public void close() {
+        checkpoint();
+        active.buffer.force();
+    }
+
+    /**
+     * Appends the signal and returns once it is durable.
+     *
+     * @return the journal sequence to pass to {@link #markProcessed(long)}
+     */
+    public long append(TradingSignalRequest signal) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(signal);
+        byte[] payload = ByteBuffer.allocate(Long.BYTES + json.length)
+                .putLong(System.currentTimeMillis())
+                .put(json)
+                .array();
+        long sequence;
+        synchronized (appendLock) {
+            sequence = write(TYPE_SIGNAL, payload);
+            inFlight.add(sequence);
+            writtenSequence = sequence;
+        }
+        awaitDurable(sequence);
+        return sequence;
+    }
+
+    public void markProcessed(long signalSequence) {
+        try {
+            synchronized (appendLock) {
+                writtenSequence = write(TYPE_PROCESSED, ByteBuffer.allocate(Long.BYTES).putLong(signalSequence).array());
+                inFlight.remove(signalSequence);
+            }
+        } catch (IOException e) {
+            // The signal stays in flight and is replayed after a restart
+            logger.error("Failed to journal completion of signal {}: {}", signalSequence, e.getMessage());
+        }
+    }
+
+    /**
+     * Signals recovered at startup without a PROCESSED record, in sequence order. Returns them once.
+     */
+    public synchronized Map<Long, RecoveredSignal> drainRecovered() {
+        Map<Long, RecoveredSignal> drained = new LinkedHashMap<>(recovered);
+        recovered.clear();
+        return drained;
+    }
+
+    public long getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Persists the checkpoint and deletes segments that only hold processed signals.
+     */
+    @Scheduled(fixedDelayString = "${risk-management.journal.checkpoint-interval-ms:1000}")
+    public synchronized void checkpoint() {
+        // writtenSequence is read first: every signal at or below it was added to inFlight beforehand
+        long written = writtenSequence;
+        Long oldest = inFlight.ceiling(Long.MIN_VALUE);
+        long safe = oldest == null ? written : Math.min(oldest - 1, written);
+        if (safe <= checkpointedSequence) {
+            return;
+        }
+
+        try {
+            writeCheckpoint(safe);
+            checkpointedSequence = safe;
+        } catch (IOException e) {
+            logger.error("Failed to write signal journal checkpoint {}: {}", safe, e.getMessage());
+            return;
+        }
+
+        Segment sealed;
+        while ((sealed = sealedSegments.peekFirst()) != null && sealed.lastSequence <= safe) {
+            sealedSegments.pollFirst();
+            sealed.close();
+            try {
+                Files.deleteIfExists(sealed.path);
+                logger.debug("Deleted signal journal segment {}", sealed.path.getFileName());
+            } catch (IOException e) {
+                logger.warn("Failed to delete signal journal segment {}: {}", sealed.path, e.getMessage());
+            }
+        }
+    }
+
+    // Caller holds appendLock
+    private long write(byte type, byte[] payload) throws IOException {
+        int recordBytes = HEADER_BYTES + payload.length;
+        if (recordBytes > segmentSize) {
+            throw new IOException("Journal record of " + recordBytes + " bytes exceeds segment size " + segmentSize);
+        }
+        if (active.buffer.capacity() - active.position < recordBytes) {
+            roll();
+        }
+
+        long sequence = nextSequence++;
+        MappedByteBuffer buffer = active.buffer;
+        int position = active.position;
+        buffer.putLong(position + 8, sequence);
+        buffer.put(position + 16, type);
+        buffer.put(position + HEADER_BYTES, payload);
+        buffer.putInt(position + 4, checksum(buffer, position + 8, recordBytes - 8));
+        buffer.putInt(position, payload.length);
+        active.position = position + recordBytes;
+        active.lastSequence = sequence;
+        return sequence;
+    }
+
+    // Caller holds appendLock. Forcing before the switch keeps awaitDurable correct with only the active segment.
+    private void roll() throws IOException {
+        Segment previous = active;
+        previous.buffer.force();
+        active = Segment.open(segmentPath(nextSequence), segmentSize);
+        sealedSegments.add(previous);
+        logger.info("Signal journal rolled to segment {}", active.path.getFileName());
+    }
+
+    private void awaitDurable(long sequence) {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (forceLock) {
+            // Another appender's force may already have covered this record while we waited
+            if (durableSequence >= sequence) {
+                return;
+            }
+            long target = writtenSequence;
+            active.buffer.force();
+            durableSequence = target;
+        }
+    }
+
+    private long recover(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer;
+        long expected = segment.firstSequence;
+        int position = 0;
+
+        while (position + HEADER_BYTES <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()) {
+                break;
+            }
+            long sequence = buffer.getLong(position + 8);
+            if (sequence != expected || buffer.getInt(position + 4) != checksum(buffer, position + 8, HEADER_BYTES - 8 + length)) {
+                logger.warn("Signal journal {} ends at offset {} with a torn or stale record", segment.path.getFileName(), position);
+                break;
+            }
+
+            byte type = buffer.get(position + 16);
+            if (type != TYPE_SIGNAL && type != TYPE_PROCESSED) {
+                logger.warn("Signal journal {} ends at offset {} with a record of unknown type {}",
+                        segment.path.getFileName(), position, type);
+                break;
+            }
+            if (type == TYPE_SIGNAL && sequence > checkpointedSequence) {
+                Instant journaledAt = Instant.ofEpochMilli(buffer.getLong(position + HEADER_BYTES));
+                byte[] json = new byte[length - Long.BYTES];
+                buffer.get(position + HEADER_BYTES + Long.BYTES, json);
+                try {
+                    recovered.put(sequence, new RecoveredSignal(objectMapper.readValue(json, TradingSignalRequest.class), journaledAt));
+                } catch (IOException e) {
+                    logger.error("Skipping unreadable journaled signal {}: {}", sequence, e.getMessage());
+                }
+            } else if (type == TYPE_PROCESSED) {
+                recovered.remove(buffer.getLong(position + HEADER_BYTES));
+            }
+
+            segment.lastSequence = sequence;
+            position += HEADER_BYTES + length;
+            expected++;
+        }
+
+        segment.position = position;
+        return expected;
+    }
+
+    private long readCheckpoint() {
+        Path path = directory.resolve(CHECKPOINT_FILE);
+        try {
+            if (!Files.exists(path)) {
+                return -1;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (buffer.remaining() == Long.BYTES + Integer.BYTES) {
+                long sequence = buffer.getLong(0);
+                if (buffer.getInt(Long.BYTES) == checksum(buffer, 0, Long.BYTES)) {
+                    return sequence;
+                }
+            }
+            logger.warn("Signal journal checkpoint is corrupt, replaying every retained segment");
+        } catch (IOException e) {
+            logger.warn("Failed to read signal journal checkpoint: {}", e.getMessage());
+        }
+        return -1;
+    }
+
+    private void writeCheckpoint(long sequence) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + Integer.BYTES);
+        buffer.putLong(0, sequence);
+        buffer.putInt(Long.BYTES, checksum(buffer, 0, Long.BYTES));
+
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%020d%s", firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private static int checksum(ByteBuffer buffer, int offset, int length) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(offset, length));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * A signal found unprocessed at startup and when it was journaled.
+     */
+    public static final class RecoveredSignal {
+
+        private final TradingSignalRequest signal;
+        private final Instant journaledAt;
+
+        RecoveredSignal(TradingSignalRequest signal, Instant journaledAt) {
+            this.signal = signal;
+            this.journaledAt = journaledAt;
+        }
+
+        public TradingSignalRequest getSignal() { return signal; }
+
+        public Instant getJournaledAt() { return journaledAt; }
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+        private final long firstSequence;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private long lastSequence = -1;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            String name = path.getFileName().toString();
+            this.path = path;
+            this.firstSequence = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        private static Segment open(Path path, int segmentSize) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(channel.size(), segmentSize);
+            return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close signal journal segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.assessment.riskmanagement.journal;
+
+import com.assessment.riskmanagement.entity.Order;
+import com.assessment.riskmanagement.entity.OrderStatus;
+import com.assessment.riskmanagement.repository.OrderRepository;
+import com.assessment.riskmanagement.service.OrderService;
+import com.assessment.riskmanagement.service.SignalRejectedException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Re-runs signals that were journaled but never finished processing before the last shutdown.
+ * Delivery is at-least-once, but a signal whose order was placed just before a crash is not placed
+ * again: each order records the journal sequence of its signal, and a signal that already has one is
+ * only logged. An order still PENDING had its exchange call cut short; whether Kraken took it is not
+ * known here, so it is logged for a manual check rather than sent again.
+ * <p>
+ * Signals older than {@code replay-max-age-seconds} are logged and dropped rather than placed against
+ * today's market. A signal is only marked processed once it succeeds, is rejected outright (unknown
+ * user, trading disabled) or ages out; any other failure is retried every {@code replay-retry-interval-ms}
+ * and holds back the signals after it, so they still run in journal order. Replay runs on its own
+ * thread, so exchange calls and retries never hold up the shared scheduler or application startup.
+ */
+@Component
+@ConditionalOnProperty(prefix = "risk-management.journal", name = "enabled", havingValue = "true")
+public class SignalJournalReplayer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SignalJournalReplayer.class);
+    // Allows for created_at being rounded to the column's precision
+    private static final Duration CREATED_AT_SLACK = Duration.ofSeconds(1);
+
+    @Autowired
+    private SignalJournal signalJournal;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Value("${risk-management.journal.replay-max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @Value("${risk-management.journal.replay-retry-interval-ms:5000}")
+    private long retryIntervalMs;
+
+    // Recovered signals not yet finished, in sequence order; only touched on the replay thread
+    private final Map<Long, SignalJournal.RecoveredSignal> pending = new LinkedHashMap<>();
+
+    private ThreadPoolTaskScheduler replayScheduler;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayUnprocessedSignals() {
+        Map<Long, SignalJournal.RecoveredSignal> recovered = signalJournal.drainRecovered();
+        if (recovered.isEmpty()) {
+            return;
+        }
+
+        logger.warn("Replaying {} journaled trading signals that were not processed before shutdown", recovered.size());
+        pending.putAll(recovered);
+        replayScheduler = new ThreadPoolTaskScheduler();
+        replayScheduler.setPoolSize(1);
+        replayScheduler.setThreadNamePrefix("journal-replay-");
+        replayScheduler.setWaitForTasksToCompleteOnShutdown(false);
+        replayScheduler.initialize();
+        replayScheduler.scheduleWithFixedDelay(this::replayPending, Duration.ofMillis(retryIntervalMs));
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (replayScheduler != null) {
+            replayScheduler.shutdown();
+        }
+    }
+
+    private void replayPending() {
+        int finished = 0;
+        Iterator<Map.Entry<Long, SignalJournal.RecoveredSignal>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Long, SignalJournal.RecoveredSignal> entry = iterator.next();
+            if (!replay(entry.getKey(), entry.getValue())) {
+                break;
+            }
+            signalJournal.markProcessed(entry.getKey());
+            iterator.remove();
+            finished++;
+        }
+
+        if (finished > 0) {
+            signalJournal.checkpoint();
+        }
+        if (pending.isEmpty()) {
+            logger.info("Journaled trading signals replayed");
+            // Also cancels this periodic task
+            replayScheduler.shutdown();
+        } else {
+            logger.warn("{} journaled trading signals still waiting to be replayed", pending.size());
+        }
+    }
+
+    /**
+     * @return true when the signal is finished with, false when it should be tried again later
+     */
+    private boolean replay(long sequence, SignalJournal.RecoveredSignal recovered) {
+        String clientId = recovered.getSignal().getClientId();
+        Instant journaledAt = recovered.getJournaledAt();
+        try {
+            LocalDateTime createdFrom = LocalDateTime.ofInstant(journaledAt, ZoneOffset.UTC).minus(CREATED_AT_SLACK);
+            List<Order> placed = orderRepository.findByJournalSequenceCreatedSince(sequence, createdFrom);
+            if (!placed.isEmpty()) {
+                Order order = placed.get(0);
+                if (order.getStatus() == OrderStatus.PENDING) {
+                    logger.error("Not replaying journaled signal {} for {}: its order {} is still PENDING and may or may not "
+                            + "have reached Kraken, check the exchange before resending", sequence, clientId, order.getId());
+                } else {
+                    logger.info("Not replaying journaled signal {} for {}: already placed as order {} ({})",
+                            sequence, clientId, order.getId(), order.getStatus());
+                }
+                return true;
+            }
+        } catch (Exception e) {
+            logger.warn("Checking for an order from journaled signal {} failed, will retry: {}", sequence, e.getMessage());
+            return false;
+        }
+
+        Duration age = Duration.between(journaledAt, Instant.now());
+        if (age.getSeconds() > maxAgeSeconds) {
+            logger.warn("Dropping journaled signal {} for {}: journaled {} s ago, over the {} s replay limit",
+                    sequence, clientId, age.getSeconds(), maxAgeSeconds);
+            return true;
+        }
+
+        try {
+            Map<String, Object> result = orderService.processTradingSignal(recovered.getSignal(), sequence);
+            logger.info("Replayed journaled signal {}: {}", sequence, result.get("status"));
+            return true;
+        } catch (SignalRejectedException e) {
+            logger.error("Replayed journaled signal {} rejected: {}", sequence, e.getMessage());
+            return true;
+        } catch (Exception e) {
+            logger.warn("Replaying journaled signal {} failed, will retry: {}", sequence, e.getMessage());
+            return false;
+        }
+    }
+}
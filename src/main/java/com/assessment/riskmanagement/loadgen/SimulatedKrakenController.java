@@ -0,0 +1,210 @@
+package com.assessment.riskmanagement.loadgen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory stand-in for the Kraken Futures endpoints used by {@code KrakenClient}, for load tests.
+ * Open orders are kept per API key, every account reports the same starting balance and signatures
+ * are not verified. Each call waits a configurable latency with jitter and fails at a configurable
+ * rate, so client-side queueing and error paths are exercised. Enabled by the {@code simulated-exchange} profile.
+ */
+@RestController
+@RequestMapping("/derivatives/api/v3")
+@ConditionalOnProperty(prefix = "risk-management.simulated-exchange", name = "enabled", havingValue = "true")
+public class SimulatedKrakenController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedKrakenController.class);
+
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+    private final BigDecimal initialBalance;
+
+    private final Map<String, Map<String, Map<String, Object>>> openOrdersByKey = new ConcurrentHashMap<>();
+    // Final status of orders no longer open, for /orders/status; the simulator never fills orders
+    private final Map<String, String> finishedStatusById = new ConcurrentHashMap<>();
+
+    public SimulatedKrakenController(@Value("${risk-management.simulated-exchange.latency-ms:20}") long latencyMillis,
+                                     @Value("${risk-management.simulated-exchange.jitter-ms:30}") long jitterMillis,
+                                     @Value("${risk-management.simulated-exchange.error-rate:0.0}") double errorRate,
+                                     @Value("${risk-management.simulated-exchange.initial-balance:10000.00}") BigDecimal initialBalance) {
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.errorRate = errorRate;
+        this.initialBalance = initialBalance;
+        logger.warn("Simulated Kraken exchange enabled ({} ms + up to {} ms jitter, error rate {})",
+                latencyMillis, jitterMillis, errorRate);
+    }
+
+    @GetMapping("/accounts")
+    public ResponseEntity<Map<String, Object>> accounts() {
+        simulateLatency();
+        if (shouldFail()) {
+            return error("apiLimitExceeded");
+        }
+
+        Map<String, Object> account = Map.of(
+                "name", "flex",
+                "balance", initialBalance,
+                "currency", "USD"
+        );
+        return ResponseEntity.ok(Map.of(
+                "result", "success",
+                "serverTime", Instant.now().toString(),
+                "accounts", List.of(account)
+        ));
+    }
+
+    @GetMapping("/openorders")
+    public ResponseEntity<Map<String, Object>> openOrders(@RequestHeader("API-Key") String apiKey) {
+        simulateLatency();
+        if (shouldFail()) {
+            return error("apiLimitExceeded");
+        }
+
+        List<Map<String, Object>> orders = new ArrayList<>(ordersFor(apiKey).values());
+        return ResponseEntity.ok(Map.of(
+                "result", "success",
+                "serverTime", Instant.now().toString(),
+                "openOrders", orders
+        ));
+    }
+
+    @PostMapping("/sendorder")
+    public ResponseEntity<Map<String, Object>> sendOrder(@RequestHeader("API-Key") String apiKey,
+                                                         @RequestParam Map<String, String> form) {
+        simulateLatency();
+        if (shouldFail()) {
+            return error("insufficientAvailableFunds");
+        }
+
+        String orderId = UUID.randomUUID().toString();
+        Map<String, Object> order = new HashMap<>();
+        order.put("orderId", orderId);
+        order.put("symbol", form.get("symbol"));
+        order.put("side", form.get("side"));
+        order.put("size", form.get("size") != null ? new BigDecimal(form.get("size")) : null);
+        order.put("orderType", form.get("orderType"));
+        order.put("status", "untouched");
+        ordersFor(apiKey).put(orderId, order);
+
+        return ResponseEntity.ok(Map.of(
+                "result", "success",
+                "sendStatus", Map.of("order_id", orderId, "status", "placed")
+        ));
+    }
+
+    @PostMapping("/cancelorder")
+    public ResponseEntity<Map<String, Object>> cancelOrder(@RequestHeader("API-Key") String apiKey,
+                                                           @RequestParam("order_id") String orderId) {
+        simulateLatency();
+        if (shouldFail()) {
+            return error("apiLimitExceeded");
+        }
+
+        boolean removed = ordersFor(apiKey).remove(orderId) != null;
+        if (removed) {
+            finishedStatusById.put(orderId, "CANCELLED");
+        }
+        return ResponseEntity.ok(Map.of(
+                "result", "success",
+                "message", removed ? "cancelled" : "notFound"
+        ));
+    }
+
+    @PostMapping("/cancelallorders")
+    public ResponseEntity<Map<String, Object>> cancelAllOrders(@RequestHeader("API-Key") String apiKey,
+                                                               @RequestParam(required = false) String symbol) {
+        simulateLatency();
+        if (shouldFail()) {
+            return error("apiLimitExceeded");
+        }
+
+        Map<String, Map<String, Object>> orders = ordersFor(apiKey);
+        int before = orders.size();
+        orders.values().removeIf(order -> {
+            boolean matches = symbol == null || symbol.equals(order.get("symbol"));
+            if (matches) {
+                finishedStatusById.put((String) order.get("orderId"), "CANCELLED");
+            }
+            return matches;
+        });
+        return ResponseEntity.ok(Map.of(
+                "result", "success",
+                "message", "cancelled " + (before - orders.size())
+        ));
+    }
+
+    @PostMapping("/orders/status")
+    public ResponseEntity<Map<String, Object>> orderStatus(@RequestHeader("API-Key") String apiKey,
+                                                           @RequestParam("orderIds") List<String> orderIds) {
+        simulateLatency();
+        if (shouldFail()) {
+            return error("apiLimitExceeded");
+        }
+
+        Map<String, Map<String, Object>> open = ordersFor(apiKey);
+        List<Map<String, Object>> statuses = new ArrayList<>();
+        for (String orderId : orderIds) {
+            String status = open.containsKey(orderId) ? "ENTERED_BOOK" : finishedStatusById.get(orderId);
+            if (status != null) {
+                statuses.add(Map.of("order", Map.of("orderId", orderId), "status", status));
+            }
+        }
+        return ResponseEntity.ok(Map.of(
+                "result", "success",
+                "serverTime", Instant.now().toString(),
+                "orders", statuses
+        ));
+    }
+
+    private Map<String, Map<String, Object>> ordersFor(String apiKey) {
+        return openOrdersByKey.computeIfAbsent(apiKey, k -> new ConcurrentHashMap<>());
+    }
+
+    private void simulateLatency() {
+        long delay = latencyMillis + (jitterMillis > 0 ? ThreadLocalRandom.current().nextLong(jitterMillis + 1) : 0);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.MILLISECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean shouldFail() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+
+    private static ResponseEntity<Map<String, Object>> error(String error) {
+        // Kraken reports business errors in the body of a 200 response
+        return ResponseEntity.ok(Map.of(
+                "result", "error",
+                "error", error,
+                "serverTime", Instant.now().toString()
+        ));
+    }
+}
@@ -0,0 +1,106 @@
+package com.assessment.riskmanagement.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Starts and stops an on-demand JDK Flight Recorder recording and dumps it to local disk. Uses the
+ * JDK's "default" settings, which are designed for continuous production use (about 1% overhead),
+ * plus the application's own {@link RiskCheckEvent}, {@link SignalProcessedEvent} and
+ * {@link KrakenCallEvent}. Only one recording runs at a time.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecordingService.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path dumpDirectory;
+    private final Duration maxDuration;
+
+    private Recording recording;
+
+    public FlightRecordingService(@Value("${risk-management.profiling.dump-dir:recordings}") String dumpDirectory,
+                                  @Value("${risk-management.profiling.max-duration-minutes:30}") long maxDurationMinutes) {
+        this.dumpDirectory = Path.of(dumpDirectory);
+        this.maxDuration = Duration.ofMinutes(maxDurationMinutes);
+    }
+
+    public synchronized Map<String, Object> start() {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            throw new IllegalStateException("A recording is already running since " + recording.getStartTime());
+        }
+
+        try {
+            Files.createDirectories(dumpDirectory);
+            Recording newRecording = new Recording(Configuration.getConfiguration("default"));
+            newRecording.setName("risk-management");
+            newRecording.enable(RiskCheckEvent.class);
+            newRecording.enable(SignalProcessedEvent.class);
+            newRecording.enable(KrakenCallEvent.class);
+            // Bounds a forgotten recording; it is still dumped by stop()
+            newRecording.setDuration(maxDuration);
+            newRecording.setToDisk(true);
+            newRecording.start();
+            recording = newRecording;
+        } catch (IOException | ParseException e) {
+            throw new RuntimeException("Failed to start flight recording: " + e.getMessage(), e);
+        }
+
+        logger.info("Flight recording started (max {} minutes)", maxDuration.toMinutes());
+        return getStatus();
+    }
+
+    public synchronized Map<String, Object> stop() {
+        if (recording == null) {
+            throw new IllegalStateException("No recording has been started");
+        }
+
+        Path file = dumpDirectory.resolve("risk-management-" +
+                LocalDateTime.now(ZoneOffset.UTC).format(FILE_TIMESTAMP) + ".jfr");
+        try {
+            if (recording.getState() == RecordingState.RUNNING) {
+                recording.stop();
+            }
+            recording.dump(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to dump flight recording: " + e.getMessage(), e);
+        } finally {
+            recording.close();
+            recording = null;
+        }
+
+        logger.info("Flight recording dumped to {}", file.toAbsolutePath());
+        Map<String, Object> result = new HashMap<>();
+        result.put("recording", "stopped");
+        result.put("file", file.toAbsolutePath().toString());
+        return result;
+    }
+
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("recording", recording == null ? "none" : recording.getState().name().toLowerCase());
+        if (recording != null) {
+            status.put("started_at", recording.getStartTime());
+            status.put("max_duration_minutes", maxDuration.toMinutes());
+        }
+        status.put("dump_dir", dumpDirectory.toAbsolutePath().toString());
+        return status;
+    }
+}
@@ -0,0 +1,32 @@
+package com.assessment.riskmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.assessment.riskmanagement.KrakenCall")
+@Label("Kraken Call")
+@Category({"Risk Management"})
+@Description("One HTTP call to the Kraken API, until the response is closed")
+@StackTrace(false)
+public class KrakenCallEvent extends Event {
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("HTTP Status")
+    @Description("0 when no response was received")
+    public int status;
+
+    @Label("Request Bytes")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Bytes")
+    @DataAmount
+    public long responseBytes;
+}
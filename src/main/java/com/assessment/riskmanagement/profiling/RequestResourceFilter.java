@@ -0,0 +1,127 @@
+package com.assessment.riskmanagement.profiling;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records heap bytes allocated and CPU time consumed by the request thread for each request, tagged by
+ * route pattern and method, as {@code http.server.requests.allocated} and {@code http.server.requests.cpu}.
+ * Both come from {@link com.sun.management.ThreadMXBean} and cover only the servlet thread, so work
+ * handed to other threads (alert bus consumers, async responses) is not included. Opt-in via
+ * {@code risk-management.profiling.request-resources.enabled}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "risk-management.profiling.request-resources", name = "enabled", havingValue = "true")
+public class RequestResourceFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestResourceFilter.class);
+
+    static final String ALLOCATED = "http.server.requests.allocated";
+    static final String CPU = "http.server.requests.cpu";
+
+    private final MeterRegistry meterRegistry;
+    private final com.sun.management.ThreadMXBean threads;
+    private final boolean allocationSupported;
+    private final boolean cpuSupported;
+
+    public RequestResourceFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (threads.isThreadAllocatedMemorySupported() && !threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        if (threads.isCurrentThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        this.allocationSupported = threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+        this.cpuSupported = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+        logger.info("Per-request resource accounting enabled (allocation: {}, cpu: {})", allocationSupported, cpuSupported);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long allocatedBefore = allocationSupported ? threads.getCurrentThreadAllocatedBytes() : 0;
+        long cpuBefore = cpuSupported ? threads.getCurrentThreadCpuTime() : 0;
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // The rest of an async request runs on another thread, so this thread's counters would be misleading
+            if (!request.isAsyncStarted()) {
+                record(request, allocatedBefore, cpuBefore);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long allocatedBefore, long cpuBefore) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Unmatched paths share one tag so scanners cannot blow up the meter count
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String method = request.getMethod();
+
+        if (allocationSupported) {
+            DistributionSummary.builder(ALLOCATED)
+                    .description("Heap bytes allocated by the request thread")
+                    .baseUnit("bytes")
+                    .tag("uri", uri)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(threads.getCurrentThreadAllocatedBytes() - allocatedBefore);
+        }
+        if (cpuSupported) {
+            Timer.builder(CPU)
+                    .description("CPU time consumed by the request thread")
+                    .tag("uri", uri)
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .record(threads.getCurrentThreadCpuTime() - cpuBefore, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Routes ordered by mean allocated bytes per request, heaviest first.
+     */
+    public List<Map<String, Object>> getRoutes() {
+        List<Map<String, Object>> routes = new ArrayList<>();
+        for (DistributionSummary allocated : meterRegistry.find(ALLOCATED).summaries()) {
+            String uri = allocated.getId().getTag("uri");
+            String method = allocated.getId().getTag("method");
+
+            Map<String, Object> route = new HashMap<>();
+            route.put("uri", uri);
+            route.put("method", method);
+            route.put("requests", allocated.count());
+            route.put("mean_allocated_bytes", (long) allocated.mean());
+            route.put("max_allocated_bytes", (long) allocated.max());
+            route.put("total_allocated_bytes", (long) allocated.totalAmount());
+            Timer cpu = meterRegistry.find(CPU).tag("uri", uri).tag("method", method).timer();
+            if (cpu != null) {
+                route.put("mean_cpu_micros", (long) cpu.mean(TimeUnit.MICROSECONDS));
+                route.put("max_cpu_micros", (long) cpu.max(TimeUnit.MICROSECONDS));
+            }
+            routes.add(route);
+        }
+        routes.sort(Comparator.comparingLong((Map<String, Object> r) -> (Long) r.get("mean_allocated_bytes")).reversed());
+        return routes;
+    }
+}
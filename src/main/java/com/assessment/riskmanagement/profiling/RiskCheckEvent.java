@@ -0,0 +1,27 @@
+package com.assessment.riskmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.assessment.riskmanagement.RiskCheck")
+@Label("Risk Check")
+@Category({"Risk Management"})
+@Description("One user's daily risk evaluation")
+@StackTrace(false)
+public class RiskCheckEvent extends Event {
+
+    @Label("Client ID")
+    public String clientId;
+
+    @Label("Outcome")
+    @Description("SAFE, AT_LIMIT, EXCEEDED or ERROR")
+    public String outcome;
+
+    @Label("Balance Source")
+    @Description("database, kraken or snapshot (sweep projection)")
+    public String balanceSource;
+}
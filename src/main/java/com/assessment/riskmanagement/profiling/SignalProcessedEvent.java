@@ -0,0 +1,30 @@
+package com.assessment.riskmanagement.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.assessment.riskmanagement.SignalProcessed")
+@Label("Signal Processed")
+@Category({"Risk Management"})
+@Description("One trading signal taken through OrderService")
+@StackTrace(false)
+public class SignalProcessedEvent extends Event {
+
+    @Label("Strategy")
+    public String strategy;
+
+    @Label("Symbol")
+    public String symbol;
+
+    @Label("Branch")
+    @Description("pyramid_rejected, inverse_closed or new_order")
+    public String branch;
+
+    @Label("Status")
+    @Description("Resulting order status, or ERROR")
+    public String status;
+}
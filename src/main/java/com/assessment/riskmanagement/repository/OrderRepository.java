@@ -3,18 +3,44 @@ package com.assessment.riskmanagement.repository;
 import com.assessment.riskmanagement.entity.Order;
 import com.assessment.riskmanagement.entity.OrderStatus;
 import com.assessment.riskmanagement.entity.User;
+import com.assessment.riskmanagement.repository.projection.OrderStatusSummary;
+import com.assessment.riskmanagement.repository.projection.OrderSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, UUID> {
-    
-    List<Order> findByUserOrderByCreatedAtDesc(User user);
+
+    String ORDER_SUMMARY_SELECT = "SELECT o.id AS id, o.symbol AS symbol, o.strategy AS strategy, o.side AS side, o.quantity AS quantity, o.price AS price, " +
+           "o.stopLossPercentage AS stopLossPercentage, o.maxRiskPerDayPercentage AS maxRiskPerDayPercentage, " +
+           "o.inverse AS inverse, o.pyramid AS pyramid, o.status AS status, o.krakenOrderId AS krakenOrderId, " +
+           "o.errorMessage AS errorMessage, o.createdAt AS createdAt, o.updatedAt AS updatedAt, o.executedAt AS executedAt " +
+           "FROM Order o ";
+
+    @Query(ORDER_SUMMARY_SELECT + "WHERE o.user = :user ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findPageByUser(@Param("user") User user, Pageable pageable);
+
+    @Query(ORDER_SUMMARY_SELECT + "WHERE o.user = :user " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<OrderSummary> findPageByUserAfter(
+        @Param("user") User user,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        Pageable pageable
+    );
     
     List<Order> findByUserAndStatus(User user, OrderStatus status);
     
@@ -28,4 +54,83 @@ public interface OrderRepository extends JpaRepository<Order, UUID> {
     
     @Query("SELECT o FROM Order o WHERE o.user = :user AND o.status = 'OPEN'")
     List<Order> findOpenOrdersByUser(@Param("user") User user);
+
+    @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.status = 'OPEN'")
+    List<Order> findOpenOrdersByUserId(@Param("userId") UUID userId);
+
+    // Lookups and updates by id also bound created_at, the partition key, so PostgreSQL only visits
+    // the partitions that can hold the row instead of probing every monthly partition's id index
+    @Query("SELECT o FROM Order o WHERE o.id = :id AND o.createdAt BETWEEN :createdFrom AND :createdTo")
+    Optional<Order> findByIdCreatedBetween(
+        @Param("id") UUID id,
+        @Param("createdFrom") LocalDateTime createdFrom,
+        @Param("createdTo") LocalDateTime createdTo
+    );
+
+    // A sequence is only unique within one journal, so the lookup is also bounded by when the signal
+    // was journaled; that bound keeps it to the newest partitions too
+    @Query("SELECT o FROM Order o WHERE o.journalSequence = :journalSequence AND o.createdAt >= :createdFrom")
+    List<Order> findByJournalSequenceCreatedSince(
+        @Param("journalSequence") long journalSequence,
+        @Param("createdFrom") LocalDateTime createdFrom
+    );
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = :newStatus, o.updatedAt = :now WHERE o.id IN :ids " +
+           "AND o.createdAt BETWEEN :createdFrom AND :createdTo AND o.status = :expectedStatus")
+    int transitionStatus(
+        @Param("ids") Collection<UUID> ids,
+        @Param("createdFrom") LocalDateTime createdFrom,
+        @Param("createdTo") LocalDateTime createdTo,
+        @Param("expectedStatus") OrderStatus expectedStatus,
+        @Param("newStatus") OrderStatus newStatus,
+        @Param("now") LocalDateTime now
+    );
+
+    /**
+     * Moves the given orders from expectedStatus to newStatus, bounded by their own creation times.
+     */
+    default int transitionStatus(List<Order> orders, OrderStatus expectedStatus, OrderStatus newStatus, LocalDateTime now) {
+        List<UUID> ids = new ArrayList<>(orders.size());
+        LocalDateTime createdFrom = null;
+        LocalDateTime createdTo = null;
+        for (Order order : orders) {
+            ids.add(order.getId());
+            if (createdFrom == null || order.getCreatedAt().isBefore(createdFrom)) {
+                createdFrom = order.getCreatedAt();
+            }
+            if (createdTo == null || order.getCreatedAt().isAfter(createdTo)) {
+                createdTo = order.getCreatedAt();
+            }
+        }
+        return ids.isEmpty() ? 0 : transitionStatus(ids, createdFrom, createdTo, expectedStatus, newStatus, now);
+    }
+
+    // Saves the exchange outcome of a new order without a merge, which would select and update by id alone
+    @Modifying
+    @Transactional
+    @Query("UPDATE Order o SET o.status = :status, o.krakenOrderId = :krakenOrderId, o.executedAt = :executedAt, " +
+           "o.errorMessage = :errorMessage, o.updatedAt = :now " +
+           "WHERE o.id = :id AND o.createdAt BETWEEN :createdFrom AND :createdTo")
+    int recordPlacement(
+        @Param("id") UUID id,
+        @Param("createdFrom") LocalDateTime createdFrom,
+        @Param("createdTo") LocalDateTime createdTo,
+        @Param("status") OrderStatus status,
+        @Param("krakenOrderId") String krakenOrderId,
+        @Param("executedAt") LocalDateTime executedAt,
+        @Param("errorMessage") String errorMessage,
+        @Param("now") LocalDateTime now
+    );
+
+    @Query("SELECT o.status AS status, COUNT(o) AS orderCount, SUM(o.quantity) AS totalQuantity " +
+           "FROM Order o WHERE o.user = :user GROUP BY o.status")
+    List<OrderStatusSummary> summarizeByStatus(@Param("user") User user);
+
+    @Query("SELECT DISTINCT o.symbol FROM Order o WHERE o.user = :user ORDER BY o.symbol")
+    List<String> findDistinctSymbolsByUser(@Param("user") User user);
+
+    @Query("SELECT DISTINCT o.strategy FROM Order o WHERE o.user = :user ORDER BY o.strategy")
+    List<String> findDistinctStrategiesByUser(@Param("user") User user);
 }
@@ -3,6 +3,8 @@ package com.assessment.riskmanagement.repository;
 import com.assessment.riskmanagement.entity.RiskEvent;
 import com.assessment.riskmanagement.entity.RiskEventType;
 import com.assessment.riskmanagement.entity.User;
+import com.assessment.riskmanagement.repository.projection.RiskEventSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,19 +12,37 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface RiskEventRepository extends JpaRepository<RiskEvent, UUID> {
-    
-    List<RiskEvent> findByUserOrderByCreatedAtDesc(User user);
+
+    String RISK_EVENT_SUMMARY_SELECT = "SELECT re.id AS id, re.user.clientId AS clientId, re.eventType AS eventType, re.description AS description, " +
+           "re.currentBalance AS currentBalance, re.initialBalance AS initialBalance, re.riskThreshold AS riskThreshold, " +
+           "re.lossAmount AS lossAmount, re.lossPercentage AS lossPercentage, re.ordersClosed AS ordersClosed, " +
+           "re.tradingDisabledUntil AS tradingDisabledUntil, re.createdAt AS createdAt " +
+           "FROM RiskEvent re ";
     
     List<RiskEvent> findByEventTypeOrderByCreatedAtDesc(RiskEventType eventType);
-    
-    @Query("SELECT re FROM RiskEvent re ORDER BY re.createdAt DESC")
-    List<RiskEvent> findAllOrderByCreatedAtDesc();
-    
-    @Query("SELECT re FROM RiskEvent re WHERE re.user = :user AND re.tradingDisabledUntil IS NOT NULL AND re.tradingDisabledUntil > :currentTime ORDER BY re.createdAt DESC")
-    Optional<RiskEvent> findLatestTradingDisabledEvent(@Param("user") User user, @Param("currentTime") LocalDateTime currentTime);
+
+    @Query(RISK_EVENT_SUMMARY_SELECT + "ORDER BY re.createdAt DESC, re.id DESC")
+    List<RiskEventSummary> findPage(Pageable pageable);
+
+    @Query(RISK_EVENT_SUMMARY_SELECT +
+           "WHERE re.createdAt < :createdAt OR (re.createdAt = :createdAt AND re.id < :id) " +
+           "ORDER BY re.createdAt DESC, re.id DESC")
+    List<RiskEventSummary> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
+
+    @Query(RISK_EVENT_SUMMARY_SELECT + "WHERE re.user = :user ORDER BY re.createdAt DESC, re.id DESC")
+    List<RiskEventSummary> findPageByUser(@Param("user") User user, Pageable pageable);
+
+    @Query(RISK_EVENT_SUMMARY_SELECT + "WHERE re.user = :user " +
+           "AND (re.createdAt < :createdAt OR (re.createdAt = :createdAt AND re.id < :id)) " +
+           "ORDER BY re.createdAt DESC, re.id DESC")
+    List<RiskEventSummary> findPageByUserAfter(
+        @Param("user") User user,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") UUID id,
+        Pageable pageable
+    );
 }
@@ -1,24 +1,65 @@
 package com.assessment.riskmanagement.repository;
 
 import com.assessment.riskmanagement.entity.User;
+import com.assessment.riskmanagement.repository.projection.UserCredentials;
+import com.assessment.riskmanagement.repository.projection.UserRiskSnapshot;
+import com.assessment.riskmanagement.repository.projection.UserSummary;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, UUID> {
-    
-    Optional<User> findByClientId(String clientId);
+public interface UserRepository extends JpaRepository<User, UUID>, UserRepositoryCustom {
+
+    String USER_SUMMARY_SELECT = "SELECT u.id AS id, u.clientId AS clientId, u.isActive AS isActive, u.tradingEnabled AS tradingEnabled, " +
+           "u.dailyRiskAbsolute AS dailyRiskAbsolute, u.dailyRiskPercentage AS dailyRiskPercentage, " +
+           "u.initialBalance AS initialBalance, u.currentBalance AS currentBalance, u.createdAt AS createdAt " +
+           "FROM User u ";
     
     boolean existsByClientId(String clientId);
     
     @Query("SELECT u FROM User u WHERE u.isActive = true")
     List<User> findAllActiveUsers();
     
+    String RISK_SNAPSHOT_SELECT = "SELECT u.id AS id, u.clientId AS clientId, u.initialBalance AS initialBalance, u.currentBalance AS currentBalance, " +
+           "u.dailyRiskAbsolute AS dailyRiskAbsolute, u.dailyRiskPercentage AS dailyRiskPercentage " +
+           "FROM User u ";
+
+    @Query(RISK_SNAPSHOT_SELECT + "WHERE u.isActive = true ORDER BY u.id")
+    List<UserRiskSnapshot> findActiveUserRiskSnapshots();
+
+    // Lets a sweep that ran out of time continue after the last user it checked
+    @Query(RISK_SNAPSHOT_SELECT + "WHERE u.isActive = true AND u.id > :after ORDER BY u.id")
+    List<UserRiskSnapshot> findActiveUserRiskSnapshotsAfter(@Param("after") UUID after);
+
+    // One slice of a time-sliced sweep: sweep buckets in [fromBucket, toBucket)
+    @Query(RISK_SNAPSHOT_SELECT + "WHERE u.isActive = true AND u.sweepBucket >= :fromBucket AND u.sweepBucket < :toBucket")
+    List<UserRiskSnapshot> findActiveUserRiskSnapshotsInBuckets(@Param("fromBucket") int fromBucket,
+                                                                @Param("toBucket") int toBucket);
+
+    long countByIsActiveTrue();
+
+    // One reconciliation slice: active users in sweep buckets [fromBucket, toBucket) with an OPEN order
+    @Query("SELECT u.id AS id, u.clientId AS clientId, u.krakenApiKey AS krakenApiKey, u.krakenPrivateKey AS krakenPrivateKey " +
+           "FROM User u WHERE u.isActive = true AND u.sweepBucket >= :fromBucket AND u.sweepBucket < :toBucket " +
+           "AND EXISTS (SELECT 1 FROM Order o WHERE o.user = u AND o.status = 'OPEN')")
+    List<UserCredentials> findActiveUserCredentialsWithOpenOrdersInBuckets(@Param("fromBucket") int fromBucket,
+                                                                           @Param("toBucket") int toBucket);
+
     @Query("SELECT u FROM User u WHERE u.isActive = true AND u.tradingEnabled = false")
     List<User> findUsersWithTradingDisabled();
+
+    @Query(USER_SUMMARY_SELECT + "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserSummary> findPage(Pageable pageable);
+
+    @Query(USER_SUMMARY_SELECT +
+           "WHERE u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id) " +
+           "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserSummary> findPageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Pageable pageable);
 }
@@ -0,0 +1,34 @@
+package com.assessment.riskmanagement.repository;
+
+import com.assessment.riskmanagement.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Resolves the user through Hibernate's natural-id API so repeated lookups are served from the
+     * natural-id and entity second-level cache regions instead of a query per call.
+     */
+    Optional<User> findByClientId(String clientId);
+
+    /**
+     * Sets last_risk_check for the given users with a native UPDATE. A JPQL bulk update would evict
+     * the whole User entity and natural-id regions on every sweep; this one declares a query space no
+     * cached entity uses, so the regions stay warm.
+     */
+    int stampLastRiskCheck(Collection<UUID> ids, LocalDateTime checkedAt);
+
+    /**
+     * Re-enables trading for active users whose latest restriction in the window since {@code since} has
+     * expired: one locking SELECT of the matching ids and one UPDATE by id, however many users match.
+     * Only the updated users are evicted from the entity cache region.
+     *
+     * @return client ids of the re-enabled users, keyed by user id
+     */
+    Map<UUID, String> enableTradingForExpiredRestrictions(LocalDateTime since, LocalDateTime now);
+}
@@ -0,0 +1,89 @@
+package com.assessment.riskmanagement.repository;
+
+import com.assessment.riskmanagement.entity.User;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    // Latest trading_disabled_until in the window is in the past: at least one such event, none still in force.
+    // FOR UPDATE holds the rows so the UPDATE below changes exactly the users returned to the caller.
+    private static final String EXPIRED_TRADING_RESTRICTION_FOR_UPDATE =
+            "SELECT u.id, u.client_id FROM users u WHERE u.is_active = true AND u.trading_enabled = false " +
+            "AND EXISTS (SELECT 1 FROM risk_events re WHERE re.user_id = u.id AND re.created_at >= :since " +
+            "AND re.trading_disabled_until IS NOT NULL) " +
+            "AND NOT EXISTS (SELECT 1 FROM risk_events re WHERE re.user_id = u.id AND re.created_at >= :since " +
+            "AND re.trading_disabled_until > :now) " +
+            "FOR UPDATE";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<User> findByClientId(String clientId) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(User.class)
+                .loadOptional(clientId);
+    }
+
+    @Override
+    public int stampLastRiskCheck(Collection<UUID> ids, LocalDateTime checkedAt) {
+        return entityManager.createNativeQuery("UPDATE users SET last_risk_check = :checkedAt WHERE id IN (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(User.RISK_CHECK_QUERY_SPACE)
+                .setParameter("checkedAt", checkedAt)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<UUID, String> enableTradingForExpiredRestrictions(LocalDateTime since, LocalDateTime now) {
+        List<Object[]> rows = entityManager.createNativeQuery(EXPIRED_TRADING_RESTRICTION_FOR_UPDATE)
+                .setParameter("since", since)
+                .setParameter("now", now)
+                .getResultList();
+        Map<UUID, String> clientIds = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            clientIds.put((UUID) row[0], (String) row[1]);
+        }
+        if (clientIds.isEmpty()) {
+            return clientIds;
+        }
+
+        entityManager.createNativeQuery("UPDATE users SET trading_enabled = true, updated_at = :now WHERE id IN (:ids)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(User.TRADING_RESET_QUERY_SPACE)
+                .setParameter("now", now)
+                .setParameterList("ids", clientIds.keySet())
+                .executeUpdate();
+
+        // client_id does not change, so the natural-id region stays valid; only the entity entries are stale.
+        // Evicted again after completion in case a concurrent load cached the old row before the commit.
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        List<UUID> ids = List.copyOf(clientIds.keySet());
+        ids.forEach(id -> cache.evict(User.class, id));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ids.forEach(id -> cache.evict(User.class, id));
+                }
+            });
+        }
+        return clientIds;
+    }
+}
@@ -0,0 +1,14 @@
+package com.assessment.riskmanagement.repository.projection;
+
+import com.assessment.riskmanagement.entity.OrderStatus;
+
+import java.math.BigDecimal;
+
+public interface OrderStatusSummary {
+
+    OrderStatus getStatus();
+
+    Long getOrderCount();
+
+    BigDecimal getTotalQuantity();
+}
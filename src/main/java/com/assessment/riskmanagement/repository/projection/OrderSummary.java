@@ -0,0 +1,43 @@
+package com.assessment.riskmanagement.repository.projection;
+
+import com.assessment.riskmanagement.entity.OrderSide;
+import com.assessment.riskmanagement.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface OrderSummary {
+
+    UUID getId();
+
+    String getSymbol();
+
+    String getStrategy();
+
+    OrderSide getSide();
+
+    BigDecimal getQuantity();
+
+    BigDecimal getPrice();
+
+    BigDecimal getStopLossPercentage();
+
+    BigDecimal getMaxRiskPerDayPercentage();
+
+    Boolean getInverse();
+
+    Boolean getPyramid();
+
+    OrderStatus getStatus();
+
+    String getKrakenOrderId();
+
+    String getErrorMessage();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+
+    LocalDateTime getExecutedAt();
+}
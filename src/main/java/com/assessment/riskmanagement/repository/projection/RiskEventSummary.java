@@ -0,0 +1,34 @@
+package com.assessment.riskmanagement.repository.projection;
+
+import com.assessment.riskmanagement.entity.RiskEventType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public interface RiskEventSummary {
+
+    UUID getId();
+
+    String getClientId();
+
+    RiskEventType getEventType();
+
+    String getDescription();
+
+    BigDecimal getCurrentBalance();
+
+    BigDecimal getInitialBalance();
+
+    BigDecimal getRiskThreshold();
+
+    BigDecimal getLossAmount();
+
+    BigDecimal getLossPercentage();
+
+    String getOrdersClosed();
+
+    LocalDateTime getTradingDisabledUntil();
+
+    LocalDateTime getCreatedAt();
+}
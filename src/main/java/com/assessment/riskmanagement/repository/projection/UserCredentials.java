@@ -0,0 +1,17 @@
+package com.assessment.riskmanagement.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Columns needed to call Kraken on a user's behalf without loading the entity.
+ */
+public interface UserCredentials {
+
+    UUID getId();
+
+    String getClientId();
+
+    String getKrakenApiKey();
+
+    String getKrakenPrivateKey();
+}
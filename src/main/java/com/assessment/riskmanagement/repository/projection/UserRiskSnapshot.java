@@ -0,0 +1,22 @@
+package com.assessment.riskmanagement.repository.projection;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Columns the risk sweep needs to classify a user without loading the entity.
+ */
+public interface UserRiskSnapshot {
+
+    UUID getId();
+
+    String getClientId();
+
+    BigDecimal getInitialBalance();
+
+    BigDecimal getCurrentBalance();
+
+    BigDecimal getDailyRiskAbsolute();
+
+    BigDecimal getDailyRiskPercentage();
+}
@@ -0,0 +1,29 @@
+package com.assessment.riskmanagement.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columns needed to render a {@code UserResponse}; skips the Kraken key TEXT columns.
+ */
+public interface UserSummary {
+
+    UUID getId();
+
+    String getClientId();
+
+    Boolean getIsActive();
+
+    Boolean getTradingEnabled();
+
+    BigDecimal getDailyRiskAbsolute();
+
+    BigDecimal getDailyRiskPercentage();
+
+    BigDecimal getInitialBalance();
+
+    BigDecimal getCurrentBalance();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,228 @@
+package com.assessment.riskmanagement.service;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Rolling HDR latency histograms for the SLO dashboard. Each series records into an HdrHistogram
+ * {@link Recorder}, which is wait-free on the recording side. About every 10 seconds the interval
+ * histogram is swapped out into a fine slot stamped with the wall-clock span it covers, and every
+ * 5 minutes the fine slots since the last merge are folded into a coarse slot, kept for an hour.
+ * Windows are built from those stamps rather than from slot counts, so a roll delayed by a busy
+ * scheduler thread widens one slot instead of skewing every window: a slot belongs to a window when
+ * its midpoint falls inside it, and each summary reports the span actually covered.
+ */
+@Service
+public class LatencyService {
+
+    public static final String WEBHOOK = "webhook";
+    public static final String RISK_CHECK = "risk_check";
+    public static final String SWEEP = "sweep";
+    public static final String TIME_TO_FLAT = "time_to_flat";
+    public static final String KRAKEN_PREFIX = "kraken.";
+
+    private static final long TICK_MILLIS = 10_000;
+    private static final long FINE_RETENTION_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long COARSE_RETENTION_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Map<String, RollingHistogram> series = new ConcurrentHashMap<>();
+    private final LongSupplier clock;
+
+    public LatencyService() {
+        this(System::currentTimeMillis);
+    }
+
+    LatencyService(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    public void record(String name, long durationNanos) {
+        series.computeIfAbsent(name, n -> new RollingHistogram(clock.getAsLong())).record(durationNanos);
+    }
+
+    public void recordKrakenCall(String endpoint, long durationNanos) {
+        record(KRAKEN_PREFIX + endpoint, durationNanos);
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void roll() {
+        long now = clock.getAsLong();
+        for (RollingHistogram histogram : series.values()) {
+            histogram.roll(now);
+        }
+    }
+
+    /**
+     * Percentiles in milliseconds per series for the 1m, 5m and 1h windows.
+     */
+    public Map<String, Object> getLatencySnapshot() {
+        long now = clock.getAsLong();
+        Map<String, Object> snapshot = new TreeMap<>();
+        for (Map.Entry<String, RollingHistogram> entry : series.entrySet()) {
+            RollingHistogram histogram = entry.getValue();
+            Map<String, Object> windows = new HashMap<>();
+            windows.put("1m", summarize(histogram.window(TimeUnit.MINUTES.toMillis(1), now)));
+            windows.put("5m", summarize(histogram.window(TimeUnit.MINUTES.toMillis(5), now)));
+            windows.put("1h", summarize(histogram.window(TimeUnit.HOURS.toMillis(1), now)));
+            snapshot.put(entry.getKey(), windows);
+        }
+        return snapshot;
+    }
+
+    Window window(String name, long windowMillis) {
+        RollingHistogram histogram = series.get(name);
+        return histogram != null ? histogram.window(windowMillis, clock.getAsLong()) : new Window(newHistogram(), 0);
+    }
+
+    private static Map<String, Object> summarize(Window window) {
+        Histogram histogram = window.histogram;
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("covered_seconds", TimeUnit.MILLISECONDS.toSeconds(window.coveredMillis));
+        if (histogram.getTotalCount() == 0) {
+            return summary;
+        }
+        summary.put("min_ms", toMillis(histogram.getMinValue()));
+        summary.put("mean_ms", histogram.getMean() / 1000.0);
+        summary.put("p50_ms", toMillis(histogram.getValueAtPercentile(50)));
+        summary.put("p90_ms", toMillis(histogram.getValueAtPercentile(90)));
+        summary.put("p99_ms", toMillis(histogram.getValueAtPercentile(99)));
+        summary.put("p999_ms", toMillis(histogram.getValueAtPercentile(99.9)));
+        summary.put("max_ms", toMillis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * A histogram over the wall-clock span {@code [startMillis, endMillis)}.
+     */
+    private static final class Slot {
+
+        private final Histogram histogram;
+        private final long startMillis;
+        private final long endMillis;
+
+        private Slot(Histogram histogram, long startMillis, long endMillis) {
+            this.histogram = histogram;
+            this.startMillis = startMillis;
+            this.endMillis = endMillis;
+        }
+
+        private long midpoint() {
+            return startMillis + (endMillis - startMillis) / 2;
+        }
+    }
+
+    static final class Window {
+
+        final Histogram histogram;
+        final long coveredMillis;
+
+        private Window(Histogram histogram, long coveredMillis) {
+            this.histogram = histogram;
+            this.coveredMillis = coveredMillis;
+        }
+    }
+
+    private static final class RollingHistogram {
+
+        private final Recorder recorder = new Recorder(1, HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        // Newest first; guarded by this
+        private final Deque<Slot> fine = new ArrayDeque<>();
+        private final Deque<Slot> coarse = new ArrayDeque<>();
+        private long lastRollMillis;
+        // Fine slots starting at or after this have not been merged into a coarse slot yet
+        private long coarseBoundaryMillis;
+
+        private RollingHistogram(long createdMillis) {
+            this.lastRollMillis = createdMillis;
+            this.coarseBoundaryMillis = createdMillis;
+        }
+
+        private void record(long durationNanos) {
+            long micros = Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(durationNanos)), HIGHEST_TRACKABLE_MICROS);
+            recorder.recordValue(micros);
+        }
+
+        private synchronized void roll(long now) {
+            if (now <= lastRollMillis) {
+                return;
+            }
+            fine.addFirst(new Slot(recorder.getIntervalHistogram(), lastRollMillis, now));
+            lastRollMillis = now;
+
+            if (now - coarseBoundaryMillis >= FINE_RETENTION_MILLIS) {
+                Histogram merged = newHistogram();
+                long start = now;
+                for (Slot slot : fine) {
+                    if (slot.startMillis < coarseBoundaryMillis) {
+                        break;
+                    }
+                    merged.add(slot.histogram);
+                    start = slot.startMillis;
+                }
+                coarse.addFirst(new Slot(merged, start, now));
+                coarseBoundaryMillis = now;
+            }
+
+            while (!fine.isEmpty() && fine.peekLast().endMillis <= now - FINE_RETENTION_MILLIS) {
+                fine.removeLast();
+            }
+            while (!coarse.isEmpty() && coarse.peekLast().endMillis <= now - COARSE_RETENTION_MILLIS) {
+                coarse.removeLast();
+            }
+        }
+
+        /**
+         * Sum of the slots whose midpoint lies within the last {@code windowMillis}. Windows no longer
+         * than the fine retention use fine slots only; longer ones use the fine slots since the last
+         * merge plus the coarse slots before that.
+         */
+        private synchronized Window window(long windowMillis, long now) {
+            long cutoff = now - windowMillis;
+            Histogram sum = newHistogram();
+            long oldestStart = now;
+
+            for (Slot slot : fine) {
+                boolean inWindow = windowMillis <= FINE_RETENTION_MILLIS
+                        ? slot.midpoint() >= cutoff
+                        : slot.startMillis >= coarseBoundaryMillis;
+                if (!inWindow) {
+                    break;
+                }
+                sum.add(slot.histogram);
+                oldestStart = slot.startMillis;
+            }
+            if (windowMillis > FINE_RETENTION_MILLIS) {
+                for (Slot slot : coarse) {
+                    if (slot.midpoint() < cutoff) {
+                        break;
+                    }
+                    sum.add(slot.histogram);
+                    oldestStart = slot.startMillis;
+                }
+            }
+            return new Window(sum, Math.max(0, lastRollMillis - oldestStart));
+        }
+    }
+}
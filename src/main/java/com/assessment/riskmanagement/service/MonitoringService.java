@@ -1,32 +1,288 @@
 package com.assessment.riskmanagement.service;
 
 import com.assessment.riskmanagement.dto.RiskCheckResponse;
+import com.assessment.riskmanagement.entity.User;
+import com.assessment.riskmanagement.repository.projection.UserRiskSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Runs the risk sweep on its own scheduler thread and the daily reset on another, so neither waits
+ * behind the other or behind the application's {@code @Scheduled} jobs. Sweeps are fixed-rate, either
+ * all users at once or, in {@link SweepMode#SLICED} mode, one hashed slice per tick so database and
+ * Kraken load stays flat across the interval. When a sweep runs past the next tick the
+ * {@link OverrunPolicy} decides what happens to the missed ticks instead of letting them run back-to-back.
+ * In sliced mode each slice counts as one run in the sweep meters. Sweep statistics are Micrometer meters, so they are safe to read from
+ * the status endpoint while a sweep is running and are also exported via actuator:
+ * {@code risk.sweep.duration}, {@code risk.sweep.schedule.lag}, {@code risk.sweep.overruns},
+ * {@code risk.sweep.cycles} tagged by skipped/coalesced/partial and {@code risk.sweep.checks} tagged
+ * by outcome.
+ */
 @Service
 public class MonitoringService {
 
     private static final Logger logger = LoggerFactory.getLogger(MonitoringService.class);
 
+    // Users checked between deadline checks in RESUME mode
+    private static final int SWEEP_BATCH_SIZE = 50;
+
+    enum Outcome { SAFE, AT_LIMIT, EXCEEDED, ERROR }
+
+    /**
+     * How each interval's checks are spread over time.
+     */
+    public enum SweepMode {
+        /** Check every user at the start of each interval. */
+        BURST,
+        /** Check one hashed slice of the users per tick, spread evenly across the interval. */
+        SLICED
+    }
+
+    /**
+     * What to do with ticks that fall due while a sweep is still running. In sliced mode this applies
+     * to whole cycles; RESUME only changes anything for burst sweeps.
+     */
+    public enum OverrunPolicy {
+        /** Drop the missed ticks and wait for the next one on the original schedule. */
+        SKIP,
+        /** Run one sweep straight away on behalf of all missed ticks. */
+        COALESCE,
+        /** Stop each sweep when the next tick is due and continue from the last user checked. */
+        RESUME
+    }
+
     @Autowired
     private RiskService riskService;
 
-    private boolean monitoringEnabled = true;
-    private LocalDateTime lastMonitoringRun;
-    private int totalUsersChecked = 0;
-    private int totalRiskEventsTriggered = 0;
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private LatencyService latencyService;
+
+    private final long intervalNanos;
+    private final SweepMode sweepMode;
+    private final int maxSlices;
+    private final int minUsersPerSlice;
+    private final OverrunPolicy overrunPolicy;
+    private final CronTrigger dailyResetTrigger;
+    private final ThreadPoolTaskScheduler sweepScheduler;
+    private final ThreadPoolTaskScheduler resetScheduler;
+
+    private final Timer sweepDuration;
+    private final Timer scheduleLag;
+    private final Counter overruns;
+    private final Counter sweeps;
+    private final Counter skippedCycles;
+    private final Counter coalescedCycles;
+    private final Counter partialSweeps;
+    private final Map<Outcome, Counter> checksByOutcome = new EnumMap<>(Outcome.class);
+
+    private volatile boolean monitoringEnabled = true;
+    private volatile LocalDateTime lastMonitoringRun;
+    private volatile long lastSweepDurationNanos;
+    private volatile LocalDateTime lastDailyReset;
+    // Written by the sweep thread only; null when the next sweep starts from the first user
+    private volatile UUID resumeAfter;
+    // Written by the sweep thread only, at the start of each sliced cycle
+    private volatile int slicesInCycle = 1;
+    private volatile int lastSliceSize;
+
+    public MonitoringService(MeterRegistry meterRegistry,
+                             @Value("${risk-management.monitoring.check-interval-seconds:30}") long checkIntervalSeconds,
+                             @Value("${risk-management.monitoring.sweep-mode:sliced}") String sweepMode,
+                             @Value("${risk-management.monitoring.max-slices:30}") int maxSlices,
+                             @Value("${risk-management.monitoring.min-users-per-slice:20}") int minUsersPerSlice,
+                             @Value("${risk-management.monitoring.overrun-policy:coalesce}") String overrunPolicy,
+                             @Value("${risk-management.monitoring.daily-reset-cron:0 1 0 * * *}") String dailyResetCron,
+                             @Value("${risk-management.monitoring.timezone:UTC}") String timezone) {
+        this.intervalNanos = TimeUnit.SECONDS.toNanos(checkIntervalSeconds);
+        this.sweepMode = SweepMode.valueOf(sweepMode.trim().toUpperCase());
+        this.maxSlices = Math.max(1, Math.min(maxSlices, User.SWEEP_BUCKETS));
+        this.minUsersPerSlice = Math.max(1, minUsersPerSlice);
+        this.overrunPolicy = OverrunPolicy.valueOf(overrunPolicy.trim().toUpperCase());
+        this.dailyResetTrigger = new CronTrigger(dailyResetCron, ZoneId.of(timezone));
+        this.sweepScheduler = newScheduler("risk-sweep-");
+        this.resetScheduler = newScheduler("risk-daily-reset-");
+
+        this.sweepDuration = Timer.builder("risk.sweep.duration")
+                .description("Wall time of one scheduled risk sweep, or of one slice in sliced mode")
+                .register(meterRegistry);
+        this.scheduleLag = Timer.builder("risk.sweep.schedule.lag")
+                .description("How late a sweep started relative to its fixed-rate schedule")
+                .register(meterRegistry);
+        this.overruns = Counter.builder("risk.sweep.overruns")
+                .description("Sweeps that took longer than the check interval")
+                .register(meterRegistry);
+        this.sweeps = Counter.builder("risk.sweep.runs")
+                .register(meterRegistry);
+        this.skippedCycles = Counter.builder("risk.sweep.cycles")
+                .description("Sweep cycles skipped, coalesced into a later sweep or cut short")
+                .tag("result", "skipped")
+                .register(meterRegistry);
+        this.coalescedCycles = Counter.builder("risk.sweep.cycles")
+                .description("Sweep cycles skipped, coalesced into a later sweep or cut short")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        this.partialSweeps = Counter.builder("risk.sweep.cycles")
+                .description("Sweep cycles skipped, coalesced into a later sweep or cut short")
+                .tag("result", "partial")
+                .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            checksByOutcome.put(outcome, Counter.builder("risk.sweep.checks")
+                    .description("Per-user risk check results")
+                    .tag("outcome", outcome.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    private static ThreadPoolTaskScheduler newScheduler(String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        scheduler.initialize();
+        return scheduler;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (sweepMode == SweepMode.SLICED) {
+            scheduleSlice(System.nanoTime(), 0);
+        } else {
+            scheduleSweep(System.nanoTime());
+        }
+        resetScheduler.schedule(this::performDailyReset, dailyResetTrigger);
+        logger.info("Risk sweep ({}) scheduled every {} s with overrun policy {}, daily reset at '{}'", sweepMode,
+                TimeUnit.NANOSECONDS.toSeconds(intervalNanos), overrunPolicy, dailyResetTrigger.getExpression());
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweepScheduler.shutdown();
+        resetScheduler.shutdown();
+    }
+
+    private void schedule(long atNanos, Runnable task) {
+        long delayNanos = Math.max(0, atNanos - System.nanoTime());
+        try {
+            sweepScheduler.schedule(task, Instant.now().plusNanos(delayNanos));
+        } catch (TaskRejectedException e) {
+            logger.debug("Sweep scheduler stopped, not scheduling the next sweep");
+        }
+    }
+
+    private void scheduleSweep(long tickNanos) {
+        schedule(tickNanos, () -> runTick(tickNanos));
+    }
+
+    private void runTick(long tickNanos) {
+        try {
+            performRiskMonitoring(tickNanos, intervalNanos, -1);
+        } finally {
+            scheduleSweep(nextTickAfter(tickNanos));
+        }
+    }
+
+    /**
+     * The next tick on the fixed-rate grid after the one that started at {@code lastTickNanos}, applying
+     * the overrun policy if ticks fell due while it was running. The result may be in the past when
+     * coalescing, meaning "run now".
+     */
+    private long nextTickAfter(long lastTickNanos) {
+        long now = System.nanoTime();
+        long nextTickNanos = lastTickNanos + intervalNanos;
+        if (nextTickNanos - now > 0) {
+            return nextTickNanos;
+        }
+
+        // Ticks in (lastTick, now] fell due while the sweep was running
+        long missedTicks = (now - lastTickNanos) / intervalNanos;
+        logger.warn("Risk sweep overran {} tick(s); policy {}", missedTicks, overrunPolicy);
+        if (overrunPolicy == OverrunPolicy.COALESCE) {
+            if (missedTicks > 1) {
+                coalescedCycles.increment(missedTicks - 1);
+            }
+            return lastTickNanos + missedTicks * intervalNanos;
+        }
+        skippedCycles.increment(missedTicks);
+        return lastTickNanos + (missedTicks + 1) * intervalNanos;
+    }
+
+    private void scheduleSlice(long cycleStartNanos, int slice) {
+        schedule(sliceTick(cycleStartNanos, slice), () -> runSlice(cycleStartNanos, slice));
+    }
+
+    private long sliceTick(long cycleStartNanos, int slice) {
+        return cycleStartNanos + intervalNanos * slice / slicesInCycle;
+    }
+
+    /**
+     * One slice of a time-sliced cycle. The slice count is fixed for the whole cycle so that the slices
+     * partition the bucket space and every user is checked exactly once per interval; it is re-derived
+     * from the active user count at the start of each cycle. A late slice runs straight away rather than
+     * being skipped, since skipping it would leave its users unchecked for a whole interval.
+     */
+    private void runSlice(long cycleStartNanos, int slice) {
+        try {
+            if (slice == 0) {
+                try {
+                    slicesInCycle = slicesFor(userService.countActiveUsers());
+                } catch (Exception e) {
+                    logger.error("Could not count active users, keeping {} slices: {}", slicesInCycle, e.getMessage());
+                }
+            }
+            performRiskMonitoring(sliceTick(cycleStartNanos, slice), intervalNanos / slicesInCycle, slice);
+        } finally {
+            if (slice + 1 < slicesInCycle) {
+                scheduleSlice(cycleStartNanos, slice + 1);
+            } else {
+                long nextCycleNanos = nextTickAfter(cycleStartNanos);
+                long now = System.nanoTime();
+                // Slices are spaced from the cycle start, so a coalesced cycle restarts the grid from now
+                scheduleSlice(nextCycleNanos - now > 0 ? nextCycleNanos : now, 0);
+            }
+        }
+    }
+
+    private int slicesFor(long activeUsers) {
+        long slices = Math.max(1, activeUsers / minUsersPerSlice);
+        return (int) Math.min(slices, maxSlices);
+    }
+
+    /**
+     * @param budgetNanos time the run has before the next one is due: the interval for a full sweep, the
+     *                    slice period for a slice
+     * @param slice       slice index within the current cycle, or -1 for a full sweep
+     */
+    private void performRiskMonitoring(long tickNanos, long budgetNanos, int slice) {
+        long startNanos = System.nanoTime();
+        scheduleLag.record(Math.max(0, startNanos - tickNanos), TimeUnit.NANOSECONDS);
 
-    @Scheduled(fixedRateString = "${risk-management.monitoring.check-interval-seconds:30}000")
-    public void performRiskMonitoring() {
         if (!monitoringEnabled) {
             return;
         }
@@ -35,53 +291,135 @@ public class MonitoringService {
             logger.debug("Starting scheduled risk monitoring...");
             lastMonitoringRun = LocalDateTime.now(ZoneOffset.UTC);
 
+            List<RiskCheckResponse> results;
+            if (slice >= 0) {
+                results = checkSlice(slice);
+            } else if (overrunPolicy == OverrunPolicy.RESUME) {
+                results = checkUntil(tickNanos + intervalNanos);
+            } else {
+                results = riskService.checkAllUsersRisk();
+            }
 
-            List<RiskCheckResponse> results = riskService.checkAllUsersRisk();
-
-            int usersChecked = results.size();
-            int riskEventsTriggered = (int) results.stream()
-                    .mapToLong(result -> {
-                        return "EXCEEDED".equals(result.getRiskStatus()) ? 1 : 0;
-                    })
-                    .sum();
-
-            totalUsersChecked += usersChecked;
-            totalRiskEventsTriggered += riskEventsTriggered;
+            int riskEventsTriggered = 0;
+            for (RiskCheckResponse result : results) {
+                Outcome outcome = outcomeOf(result);
+                checksByOutcome.get(outcome).increment();
+                if (outcome == Outcome.EXCEEDED) {
+                    riskEventsTriggered++;
+                }
+            }
 
             if (riskEventsTriggered > 0) {
-                logger.warn("Risk monitoring completed: {} users checked, {} risk events triggered", 
-                        usersChecked, riskEventsTriggered);
+                logger.warn("Risk monitoring completed: {} users checked, {} risk events triggered",
+                        results.size(), riskEventsTriggered);
             } else {
-                logger.debug("Risk monitoring completed: {} users checked, no risk events", usersChecked);
+                logger.debug("Risk monitoring completed: {} users checked, no risk events", results.size());
             }
 
         } catch (Exception e) {
             logger.error("Error during scheduled risk monitoring: {}", e.getMessage(), e);
+        } finally {
+            long durationNanos = System.nanoTime() - startNanos;
+            lastSweepDurationNanos = durationNanos;
+            sweepDuration.record(durationNanos, TimeUnit.NANOSECONDS);
+            latencyService.record(LatencyService.SWEEP, durationNanos);
+            sweeps.increment();
+            if (durationNanos > budgetNanos) {
+                overruns.increment();
+                logger.warn("Risk sweep{} took {} ms, longer than its {} ms budget", slice >= 0 ? " slice " + slice : "",
+                        TimeUnit.NANOSECONDS.toMillis(durationNanos), TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+            }
+        }
+    }
+
+    /**
+     * Checks the users whose sweep bucket falls in this slice's share of {@link User#SWEEP_BUCKETS}.
+     */
+    private List<RiskCheckResponse> checkSlice(int slice) {
+        int fromBucket = User.SWEEP_BUCKETS * slice / slicesInCycle;
+        int toBucket = User.SWEEP_BUCKETS * (slice + 1) / slicesInCycle;
+        List<UserRiskSnapshot> snapshots = userService.getActiveUserRiskSnapshotsInBuckets(fromBucket, toBucket);
+        lastSliceSize = snapshots.size();
+        return riskService.checkUsersRisk(snapshots);
+    }
+
+    /**
+     * Checks users in id order from where the previous sweep stopped, in batches, until all are done or
+     * the deadline passes. Stopping early leaves {@link #resumeAfter} at the last user checked.
+     */
+    private List<RiskCheckResponse> checkUntil(long deadlineNanos) {
+        List<UserRiskSnapshot> snapshots = userService.getActiveUserRiskSnapshotsAfter(resumeAfter);
+        List<RiskCheckResponse> results = new ArrayList<>(snapshots.size());
+
+        for (int from = 0; from < snapshots.size(); from += SWEEP_BATCH_SIZE) {
+            if (from > 0 && System.nanoTime() - deadlineNanos >= 0) {
+                resumeAfter = snapshots.get(from - 1).getId();
+                partialSweeps.increment();
+                logger.warn("Risk sweep out of time after {} of {} remaining users; resuming on the next tick",
+                        from, snapshots.size());
+                return results;
+            }
+            List<UserRiskSnapshot> batch = snapshots.subList(from, Math.min(from + SWEEP_BATCH_SIZE, snapshots.size()));
+            results.addAll(riskService.checkUsersRisk(batch));
         }
+
+        resumeAfter = null;
+        return results;
     }
 
-    @Scheduled(cron = "0 1 0 * * *", zone = "UTC")
     public void performDailyReset() {
         try {
             logger.info("Starting daily trading reset...");
-            
+
             int resetCount = riskService.resetDailyTrading();
-            
+            lastDailyReset = LocalDateTime.now(ZoneOffset.UTC);
+
             logger.info("Daily trading reset completed: {} users re-enabled", resetCount);
-            
+
         } catch (Exception e) {
             logger.error("Error during daily trading reset: {}", e.getMessage(), e);
         }
     }
 
     public Map<String, Object> getMonitoringStatus() {
-        return Map.of(
-                "monitoring_enabled", monitoringEnabled,
-                "last_monitoring_run", lastMonitoringRun,
-                "total_users_checked", totalUsersChecked,
-                "total_risk_events_triggered", totalRiskEventsTriggered,
-                "current_time_utc", LocalDateTime.now(ZoneOffset.UTC)
-        );
+        Map<String, Object> checks = new HashMap<>();
+        long totalChecked = 0;
+        for (Map.Entry<Outcome, Counter> entry : checksByOutcome.entrySet()) {
+            long count = (long) entry.getValue().count();
+            checks.put(entry.getKey().name(), count);
+            totalChecked += count;
+        }
+
+        Map<String, Object> sweep = new HashMap<>();
+        sweep.put("runs", (long) sweeps.count());
+        sweep.put("overruns", (long) overruns.count());
+        sweep.put("mode", sweepMode.name());
+        sweep.put("overrun_policy", overrunPolicy.name());
+        sweep.put("skipped_cycles", (long) skippedCycles.count());
+        sweep.put("coalesced_cycles", (long) coalescedCycles.count());
+        sweep.put("partial_sweeps", (long) partialSweeps.count());
+        sweep.put("resuming", resumeAfter != null);
+        if (sweepMode == SweepMode.SLICED) {
+            sweep.put("slices_per_interval", slicesInCycle);
+            sweep.put("last_slice_users", lastSliceSize);
+        }
+        sweep.put("last_duration_ms", TimeUnit.NANOSECONDS.toMillis(lastSweepDurationNanos));
+        sweep.put("mean_duration_ms", sweepDuration.mean(TimeUnit.MILLISECONDS));
+        sweep.put("max_duration_ms", sweepDuration.max(TimeUnit.MILLISECONDS));
+        sweep.put("max_schedule_lag_ms", scheduleLag.max(TimeUnit.MILLISECONDS));
+        sweep.put("interval_ms", TimeUnit.NANOSECONDS.toMillis(intervalNanos));
+
+        // HashMap because last_monitoring_run and last_daily_reset are null until they first run
+        Map<String, Object> status = new HashMap<>();
+        status.put("monitoring_enabled", monitoringEnabled);
+        status.put("last_monitoring_run", lastMonitoringRun);
+        status.put("last_daily_reset", lastDailyReset);
+        status.put("total_users_checked", totalChecked);
+        status.put("total_risk_events_triggered", checks.get(Outcome.EXCEEDED.name()));
+        status.put("checks_by_outcome", checks);
+        status.put("sweep", sweep);
+        status.put("current_time_utc", LocalDateTime.now(ZoneOffset.UTC));
+        return status;
     }
 
     public void enableMonitoring() {
@@ -97,4 +435,16 @@ public class MonitoringService {
     public boolean isMonitoringEnabled() {
         return monitoringEnabled;
     }
+
+    private static Outcome outcomeOf(RiskCheckResponse result) {
+        String status = result.getRiskStatus();
+        if ("EXCEEDED".equals(status)) {
+            return Outcome.EXCEEDED;
+        } else if ("AT_LIMIT".equals(status)) {
+            return Outcome.AT_LIMIT;
+        } else if ("SAFE".equals(status)) {
+            return Outcome.SAFE;
+        }
+        return Outcome.ERROR;
+    }
 }
@@ -0,0 +1,181 @@
+package com.assessment.riskmanagement.service;
+
+import com.assessment.riskmanagement.client.KrakenClient;
+import com.assessment.riskmanagement.dto.kraken.KrakenOrderStatusResponse;
+import com.assessment.riskmanagement.dto.kraken.KrakenOrdersResponse;
+import com.assessment.riskmanagement.entity.Order;
+import com.assessment.riskmanagement.entity.OrderStatus;
+import com.assessment.riskmanagement.entity.User;
+import com.assessment.riskmanagement.repository.OrderRepository;
+import com.assessment.riskmanagement.repository.projection.UserCredentials;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pulls open orders from Kraken and settles local OPEN rows that are no longer open on the exchange,
+ * using the status Kraken reports for them: filled orders become CLOSED, cancelled or rejected ones
+ * CANCELLED. Users are split into slices by sweep bucket and one slice is read and reconciled per tick,
+ * so each user is visited once every {@code interval * slices} and only users with OPEN orders are loaded.
+ */
+@Service
+public class OrderReconciliationService implements SchedulingConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderReconciliationService.class);
+
+    // Kraken order statuses that mean the order is finished, mapped to the local status to record
+    private static final Map<String, OrderStatus> FINAL_STATUSES = Map.of(
+            "FULLY_EXECUTED", OrderStatus.CLOSED,
+            "CANCELLED", OrderStatus.CANCELLED,
+            "REJECTED", OrderStatus.CANCELLED,
+            "TRIGGER_ACTIVATION_FAILURE", OrderStatus.CANCELLED
+    );
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private KrakenClient krakenClient;
+
+    @Value("${risk-management.kraken.demo-mode:false}")
+    private boolean demoMode;
+
+    @Value("${risk-management.reconciliation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${risk-management.reconciliation.slices:6}")
+    private int slices;
+
+    @Value("${risk-management.reconciliation.grace-seconds:60}")
+    private long graceSeconds;
+
+    // Any Spring Boot duration, e.g. 10s, 500ms or PT1M
+    @Value("${risk-management.reconciliation.interval:10s}")
+    private Duration interval;
+
+    private final AtomicLong tick = new AtomicLong();
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedRateTask(this::reconcileNextSlice, interval);
+    }
+
+    public void reconcileNextSlice() {
+        // Demo orders carry synthetic ids that Kraken never reports, so reconciling would close them all
+        if (!enabled || demoMode) {
+            return;
+        }
+
+        int sliceCount = Math.max(1, Math.min(slices, User.SWEEP_BUCKETS));
+        int slice = (int) (tick.getAndIncrement() % sliceCount);
+        int fromBucket = slice * User.SWEEP_BUCKETS / sliceCount;
+        int toBucket = (slice + 1) * User.SWEEP_BUCKETS / sliceCount;
+
+        int usersReconciled = 0;
+        int ordersSettled = 0;
+        for (UserCredentials user : userService.getActiveUserCredentialsWithOpenOrdersInBuckets(fromBucket, toBucket)) {
+            try {
+                ordersSettled += reconcileUser(user);
+                usersReconciled++;
+            } catch (Exception e) {
+                logger.warn("Order reconciliation failed for user {}: {}", user.getClientId(), e.getMessage());
+            }
+        }
+
+        if (ordersSettled > 0) {
+            logger.info("Order reconciliation slice {}/{}: {} users, {} orders settled",
+                    slice + 1, sliceCount, usersReconciled, ordersSettled);
+        } else {
+            logger.debug("Order reconciliation slice {}/{}: {} users, no changes", slice + 1, sliceCount, usersReconciled);
+        }
+    }
+
+    public int reconcileUser(UserCredentials user) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime cutoff = now.minusSeconds(graceSeconds);
+
+        // Orders placed within the grace period may not be visible on the exchange yet
+        List<Order> localOpen = new ArrayList<>();
+        for (Order order : orderRepository.findOpenOrdersByUserId(user.getId())) {
+            if (order.getKrakenOrderId() != null && order.getCreatedAt() != null && order.getCreatedAt().isBefore(cutoff)) {
+                localOpen.add(order);
+            }
+        }
+        if (localOpen.isEmpty()) {
+            return 0;
+        }
+
+        KrakenOrdersResponse remote = krakenClient.getOpenOrders(user.getKrakenApiKey(), user.getKrakenPrivateKey());
+        if (remote == null || !"success".equals(remote.getResult())) {
+            throw new RuntimeException("Kraken open orders unavailable: " + (remote != null ? remote.getError() : "empty response"));
+        }
+
+        Set<String> remoteOpenIds = new HashSet<>();
+        if (remote.getOpenOrders() != null) {
+            for (KrakenOrdersResponse.KrakenOrder krakenOrder : remote.getOpenOrders()) {
+                remoteOpenIds.add(krakenOrder.getOrderId());
+            }
+        }
+
+        Map<String, Order> gone = new HashMap<>();
+        for (Order order : localOpen) {
+            if (!remoteOpenIds.contains(order.getKrakenOrderId())) {
+                gone.put(order.getKrakenOrderId(), order);
+            }
+        }
+        if (gone.isEmpty()) {
+            return 0;
+        }
+
+        // Not in the open list: ask Kraken how each one ended instead of assuming it was filled
+        KrakenOrderStatusResponse statuses = krakenClient.getOrderStatus(user.getKrakenApiKey(), user.getKrakenPrivateKey(),
+                new ArrayList<>(gone.keySet()));
+        if (statuses == null || !"success".equals(statuses.getResult())) {
+            throw new RuntimeException("Kraken order status unavailable: " + (statuses != null ? statuses.getError() : "empty response"));
+        }
+
+        Map<OrderStatus, List<Order>> settled = new EnumMap<>(OrderStatus.class);
+        if (statuses.getOrders() != null) {
+            for (KrakenOrderStatusResponse.OrderStatus status : statuses.getOrders()) {
+                Order order = status.getOrder() != null ? gone.remove(status.getOrder().getOrderId()) : null;
+                OrderStatus finalStatus = FINAL_STATUSES.get(status.getStatus());
+                if (order != null && finalStatus != null) {
+                    settled.computeIfAbsent(finalStatus, k -> new ArrayList<>()).add(order);
+                }
+            }
+        }
+        if (!gone.isEmpty()) {
+            logger.warn("Kraken reported no final status for {} orders of user {}, leaving them OPEN: {}",
+                    gone.size(), user.getClientId(), gone.keySet());
+        }
+
+        int updated = 0;
+        for (Map.Entry<OrderStatus, List<Order>> entry : settled.entrySet()) {
+            updated += orderRepository.transitionStatus(entry.getValue(), OrderStatus.OPEN, entry.getKey(), now);
+        }
+        if (updated > 0) {
+            logger.info("Reconciled user {}: {} orders no longer open on Kraken settled as {}", user.getClientId(), updated,
+                    settled.entrySet().stream().map(e -> e.getKey() + "=" + e.getValue().size()).toList());
+        }
+        return updated;
+    }
+}
@@ -1,6 +1,8 @@
 package com.assessment.riskmanagement.service;
 
 import com.assessment.riskmanagement.client.KrakenClient;
+import com.assessment.riskmanagement.dto.CursorPage;
+import com.assessment.riskmanagement.dto.PageCursor;
 import com.assessment.riskmanagement.dto.TradingSignalRequest;
 import com.assessment.riskmanagement.dto.kraken.KrakenOrderRequest;
 import com.assessment.riskmanagement.dto.kraken.KrakenOrderResponse;
@@ -8,24 +10,44 @@ import com.assessment.riskmanagement.entity.Order;
 import com.assessment.riskmanagement.entity.OrderSide;
 import com.assessment.riskmanagement.entity.OrderStatus;
 import com.assessment.riskmanagement.entity.User;
+import com.assessment.riskmanagement.entity.id.UuidV7Generator;
+import com.assessment.riskmanagement.profiling.SignalProcessedEvent;
 import com.assessment.riskmanagement.repository.OrderRepository;
+import com.assessment.riskmanagement.repository.projection.OrderStatusSummary;
+import com.assessment.riskmanagement.repository.projection.OrderSummary;
+import io.micrometer.observation.annotation.Observed;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
+/**
+ * Not transactional at class level: each database step runs in its own short transaction so that
+ * no connection is held while waiting on Kraken.
+ */
 @Service
-@Transactional
 public class OrderService {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+    // Window around a known creation time used to bound created_at, the orders partition key
+    private static final Duration ID_TIME_SLACK = Duration.ofMinutes(1);
 
     @Autowired
     private OrderRepository orderRepository;
@@ -36,17 +58,31 @@ public class OrderService {
     @Autowired
     private KrakenClient krakenClient;
 
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Value("${risk-management.kraken.demo-mode:false}")
     private boolean demoMode;
 
-    public Map<String, Object> processTradingSignal(TradingSignalRequest signal) {
+    /**
+     * @param journalSequence the signal's journal sequence, stored on the order it places; null when
+     *                        the journal is disabled
+     */
+    @Observed(name = "order.signal", contextualName = "process trading signal")
+    public Map<String, Object> processTradingSignal(TradingSignalRequest signal, Long journalSequence) {
+        SignalProcessedEvent event = new SignalProcessedEvent();
+        event.begin();
+        event.strategy = signal.getStrategy();
+        event.symbol = signal.getSymbol();
+        event.branch = "new_order";
+        event.status = "ERROR";
         try {
             // Get user
             User user = userService.getUserEntityByClientId(signal.getClientId())
-                    .orElseThrow(() -> new RuntimeException("User with client_id " + signal.getClientId() + " not found"));
+                    .orElseThrow(() -> new SignalRejectedException("User with client_id " + signal.getClientId() + " not found"));
 
             if (!user.getTradingEnabled()) {
-                throw new RuntimeException("Trading is disabled for user " + signal.getClientId());
+                throw new SignalRejectedException("Trading is disabled for user " + signal.getClientId());
             }
 
             // Get existing orders for this strategy and symbol
@@ -65,6 +101,8 @@ public class OrderService {
                         .toList();
                 
                 if (!sameSideOrders.isEmpty()) {
+                    event.branch = "pyramid_rejected";
+                    event.status = "REJECTED";
                     logger.warn("Pyramid disabled: rejecting {} order for strategy {}", orderSide, signal.getStrategy());
                     Map<String, Object> result = new HashMap<>();
                     result.put("status", "rejected");
@@ -76,19 +114,23 @@ public class OrderService {
 
             // Handle inverse logic
             if (signal.getInverse() && !existingOrders.isEmpty()) {
-                // Close existing positions first
+                event.branch = "inverse_closed";
+                // Close existing positions first; exchange calls happen outside any transaction
+                List<Order> closed = new ArrayList<>();
                 for (Order order : existingOrders) {
                     try {
                         if (order.getKrakenOrderId() != null) {
                             krakenClient.cancelOrder(user.getKrakenApiKey(), user.getKrakenPrivateKey(), order.getKrakenOrderId());
                         }
-                        order.setStatus(OrderStatus.CLOSED);
-                        orderRepository.save(order);
+                        closed.add(order);
                         logger.info("Closed order {} for inverse logic", order.getId());
                     } catch (Exception e) {
                         logger.error("Error closing order {}: {}", order.getId(), e.getMessage());
                     }
                 }
+                if (!closed.isEmpty()) {
+                    orderRepository.transitionStatus(closed, OrderStatus.OPEN, OrderStatus.CLOSED, LocalDateTime.now(ZoneOffset.UTC));
+                }
             }
 
             // Create new order
@@ -98,7 +140,10 @@ public class OrderService {
             newOrder.setInverse(signal.getInverse());
             newOrder.setPyramid(signal.getPyramid());
             newOrder.setStatus(OrderStatus.PENDING);
+            newOrder.setJournalSequence(journalSequence);
 
+            // The committed PENDING row is the outbox record for the exchange call below: if the process
+            // dies before the result is saved, the order remains visible as PENDING instead of being lost
             newOrder = orderRepository.save(newOrder);
 
             // Place order with Kraken (or simulate in demo mode)
@@ -108,7 +153,7 @@ public class OrderService {
                     logger.info("DEMO MODE: Simulating order placement for {}", signal);
                     newOrder.setStatus(OrderStatus.OPEN);
                     newOrder.setKrakenOrderId("DEMO_ORDER_" + System.currentTimeMillis());
-                    newOrder.setExecutedAt(LocalDateTime.now());
+                    newOrder.setExecutedAt(LocalDateTime.now(ZoneOffset.UTC));
                     logger.info("DEMO MODE: Order simulated successfully with ID: {}", newOrder.getKrakenOrderId());
                 } else {
                     // Production mode - place real order with Kraken
@@ -134,7 +179,7 @@ public class OrderService {
                         if (krakenResponse.getSendStatus() != null) {
                             newOrder.setKrakenOrderId(krakenResponse.getSendStatus().getOrderId());
                         }
-                        newOrder.setExecutedAt(LocalDateTime.now());
+                        newOrder.setExecutedAt(LocalDateTime.now(ZoneOffset.UTC));
                     } else {
                         newOrder.setStatus(OrderStatus.FAILED);
                         newOrder.setErrorMessage(krakenResponse.getError());
@@ -147,9 +192,14 @@ public class OrderService {
                 newOrder.setErrorMessage(demoMode ? "Demo mode error: " + e.getMessage() : e.getMessage());
             }
 
-            newOrder = orderRepository.save(newOrder);
+            // Bounded rather than equal: the stored created_at may be rounded to the column's precision
+            LocalDateTime createdAt = newOrder.getCreatedAt();
+            orderRepository.recordPlacement(newOrder.getId(), createdAt.minus(ID_TIME_SLACK), createdAt.plus(ID_TIME_SLACK),
+                    newOrder.getStatus(), newOrder.getKrakenOrderId(), newOrder.getExecutedAt(), newOrder.getErrorMessage(),
+                    LocalDateTime.now(ZoneOffset.UTC));
 
             logger.info("Order processed: {} - Status: {}", newOrder.getId(), newOrder.getStatus());
+            event.status = newOrder.getStatus().name();
 
             Map<String, Object> result = new HashMap<>();
             result.put("status", newOrder.getStatus() == OrderStatus.OPEN ? "success" : "failed");
@@ -160,12 +210,18 @@ public class OrderService {
 
             return result;
 
+        } catch (SignalRejectedException e) {
+            logger.error("Error processing trading signal: {}", e.getMessage());
+            throw new SignalRejectedException("Error processing trading signal: " + e.getMessage());
         } catch (Exception e) {
             logger.error("Error processing trading signal: {}", e.getMessage());
-            throw new RuntimeException("Error processing trading signal: " + e.getMessage());
+            throw new RuntimeException("Error processing trading signal: " + e.getMessage(), e);
+        } finally {
+            event.commit();
         }
     }
 
+    @Observed(name = "order.close-all", contextualName = "close all orders")
     public List<String> closeAllOrdersForUser(User user) {
         List<String> closedOrders = new java.util.ArrayList<>();
 
@@ -177,25 +233,35 @@ public class OrderService {
                 return closedOrders;
             }
 
-            // Cancel all orders
+            // Cancel all orders on the exchange first, then record the outcome in one short transaction
+            List<Order> cancelled = new ArrayList<>();
+            List<Order> failedOrders = new ArrayList<>();
             for (Order order : openOrders) {
                 try {
                     if (order.getKrakenOrderId() != null) {
                         krakenClient.cancelOrder(user.getKrakenApiKey(), user.getKrakenPrivateKey(), order.getKrakenOrderId());
                     }
 
-                    order.setStatus(OrderStatus.CANCELLED);
-                    orderRepository.save(order);
+                    cancelled.add(order);
                     closedOrders.add(order.getId().toString());
                     logger.info("Cancelled order {} for user {}", order.getId(), user.getClientId());
 
                 } catch (Exception e) {
                     logger.error("Error cancelling order {}: {}", order.getId(), e.getMessage());
                     order.setErrorMessage(e.getMessage());
-                    orderRepository.save(order);
+                    failedOrders.add(order);
                 }
             }
 
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!cancelled.isEmpty()) {
+                    orderRepository.transitionStatus(cancelled, OrderStatus.OPEN, OrderStatus.CANCELLED, LocalDateTime.now(ZoneOffset.UTC));
+                }
+                if (!failedOrders.isEmpty()) {
+                    orderRepository.saveAll(failedOrders);
+                }
+            });
+
         } catch (Exception e) {
             logger.error("Error closing orders for user {}: {}", user.getClientId(), e.getMessage());
             throw new RuntimeException("Error closing orders for user", e);
@@ -205,15 +271,59 @@ public class OrderService {
     }
 
     @Transactional(readOnly = true)
-    public List<Order> getUserOrders(String clientId) {
+    public CursorPage<OrderSummary> getUserOrders(String clientId, String cursor, Integer limit) {
         User user = userService.getUserEntityByClientId(clientId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return orderRepository.findByUserOrderByCreatedAtDesc(user);
+
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.clampPageSize(limit);
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+
+        List<OrderSummary> orders = after == null ?
+                orderRepository.findPageByUser(user, fetch) :
+                orderRepository.findPageByUserAfter(user, after.getCreatedAt(), after.getId(), fetch);
+        return CursorPage.of(orders, pageSize, OrderSummary::getCreatedAt, OrderSummary::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getOrderStatistics(User user) {
+        // Aggregated in the database so the cost does not grow with the user's order history
+        Map<OrderStatus, Long> countsByStatus = new EnumMap<>(OrderStatus.class);
+        long totalOrders = 0;
+        BigDecimal totalVolume = BigDecimal.ZERO;
+
+        for (OrderStatusSummary summary : orderRepository.summarizeByStatus(user)) {
+            countsByStatus.put(summary.getStatus(), summary.getOrderCount());
+            totalOrders += summary.getOrderCount();
+            if (summary.getTotalQuantity() != null) {
+                totalVolume = totalVolume.add(summary.getTotalQuantity());
+            }
+        }
+
+        return Map.of(
+                "total_orders", totalOrders,
+                "open_orders", countsByStatus.getOrDefault(OrderStatus.OPEN, 0L),
+                "closed_orders", countsByStatus.getOrDefault(OrderStatus.CLOSED, 0L),
+                "cancelled_orders", countsByStatus.getOrDefault(OrderStatus.CANCELLED, 0L),
+                "failed_orders", countsByStatus.getOrDefault(OrderStatus.FAILED, 0L),
+                "total_volume", totalVolume.doubleValue(),
+                "symbols_traded", orderRepository.findDistinctSymbolsByUser(user),
+                "strategies_used", orderRepository.findDistinctStrategiesByUser(user)
+        );
     }
 
     @Transactional(readOnly = true)
     public Order getOrderById(String orderId) {
-        return orderRepository.findById(java.util.UUID.fromString(orderId))
+        UUID id = UUID.fromString(orderId);
+        // created_at is stamped within moments of the id, so its embedded time bounds the partition scan;
+        // ids without one (pre-v7 rows) and rows stamped before created_at was UTC use the plain lookup
+        Instant idTime = UuidV7Generator.timestampOf(id);
+        Optional<Order> order = Optional.empty();
+        if (idTime != null) {
+            LocalDateTime created = LocalDateTime.ofInstant(idTime, ZoneOffset.UTC);
+            order = orderRepository.findByIdCreatedBetween(id, created.minus(ID_TIME_SLACK), created.plus(ID_TIME_SLACK));
+        }
+        return order.or(() -> orderRepository.findById(id))
                 .orElseThrow(() -> new RuntimeException("Order not found"));
     }
 }
@@ -0,0 +1,172 @@
+package com.assessment.riskmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly range partitions of {@code orders} and {@code risk_events} (PostgreSQL only,
+ * see migrations V3 and V6): creates partitions ahead of time and archives partitions older than the
+ * retention window to gzipped NDJSON before dropping them. Rows that fell into a table's DEFAULT
+ * partition because their month was missing are moved into that month's partition when it is created.
+ */
+@Service
+@ConditionalOnProperty(prefix = "risk-management.retention", name = "enabled", havingValue = "true")
+public class PartitionMaintenanceService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionMaintenanceService.class);
+    private static final List<String> PARTITIONED_TABLES = List.of("orders", "risk_events");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final int ARCHIVE_FETCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${risk-management.retention.months:6}")
+    private int retentionMonths;
+
+    @Value("${risk-management.retention.premake-months:3}")
+    private int premakeMonths;
+
+    @Value("${risk-management.retention.archive-dir:archive}")
+    private String archiveDir;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureUpcomingPartitionsOnStartup() {
+        ensureUpcomingPartitions();
+    }
+
+    @Scheduled(cron = "0 30 0 * * *", zone = "UTC")
+    public void performMaintenance() {
+        try {
+            ensureUpcomingPartitions();
+            archiveExpiredPartitions();
+        } catch (Exception e) {
+            logger.error("Error during partition maintenance: {}", e.getMessage(), e);
+        }
+    }
+
+    public void ensureUpcomingPartitions() {
+        LocalDate thisMonth = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        for (String table : PARTITIONED_TABLES) {
+            // Rows in the DEFAULT partition were written while their month had no partition; creating
+            // that month moves them into it, so start from the oldest of them even if it has passed
+            LocalDate oldestStranded = jdbcTemplate.queryForObject(
+                    "SELECT CAST(MIN(created_at) AS DATE) FROM " + table + "_default", LocalDate.class);
+            LocalDate from = thisMonth;
+            if (oldestStranded != null) {
+                logger.warn("{}_default holds rows from {} on, moving them into monthly partitions", table, oldestStranded);
+                if (oldestStranded.isBefore(from)) {
+                    from = oldestStranded;
+                }
+            }
+            jdbcTemplate.queryForObject("SELECT ensure_monthly_partitions(?, ?, ?)", Integer.class,
+                    table, from, thisMonth.plusMonths(premakeMonths));
+        }
+    }
+
+    public int archiveExpiredPartitions() {
+        YearMonth oldestRetained = YearMonth.now(ZoneOffset.UTC).minusMonths(retentionMonths);
+        int archived = 0;
+
+        for (String table : PARTITIONED_TABLES) {
+            for (String partition : listPartitions(table)) {
+                YearMonth month = partitionMonth(table, partition);
+                if (month == null || !month.isBefore(oldestRetained)) {
+                    continue;
+                }
+                if ("orders".equals(table) && hasLiveOrders(partition)) {
+                    logger.warn("Keeping expired partition {}: it still holds OPEN or PENDING orders", partition);
+                    continue;
+                }
+                try {
+                    Path archive = archivePartition(partition);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                        jdbcTemplate.execute("DROP TABLE " + partition);
+                    });
+                    archived++;
+                    logger.info("Archived partition {} to {} and dropped it", partition, archive);
+                } catch (Exception e) {
+                    logger.error("Failed to archive partition {}: {}", partition, e.getMessage());
+                }
+            }
+        }
+        return archived;
+    }
+
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = ? ORDER BY c.relname", String.class, table);
+    }
+
+    private YearMonth partitionMonth(String table, String partition) {
+        if (!partition.startsWith(table + "_")) {
+            return null;
+        }
+        String suffix = partition.substring(table.length() + 1);
+        return suffix.matches("\\d{6}") ? YearMonth.parse(suffix, PARTITION_SUFFIX) : null;
+    }
+
+    private boolean hasLiveOrders(String partition) {
+        Boolean live = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE status IN ('OPEN', 'PENDING'))", Boolean.class);
+        return Boolean.TRUE.equals(live);
+    }
+
+    private Path archivePartition(String partition) throws IOException {
+        Path directory = Path.of(archiveDir);
+        Files.createDirectories(directory);
+        Path target = directory.resolve(partition + ".ndjson.gz");
+        Path temp = directory.resolve(partition + ".ndjson.gz.tmp");
+
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            // The PostgreSQL driver only streams with a fetch size inside a transaction
+            JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+            streaming.setFetchSize(ARCHIVE_FETCH_SIZE);
+            transactionTemplate.executeWithoutResult(status -> {
+                streaming.query("SELECT row_to_json(t)::text FROM " + partition + " t", (RowCallbackHandler) rs -> {
+                    try {
+                        writer.write(rs.getString(1));
+                        writer.newLine();
+                    } catch (IOException e) {
+                        throw new IllegalStateException("Failed writing archive for " + partition, e);
+                    }
+                });
+            });
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+}
@@ -1,17 +1,21 @@
 package com.assessment.riskmanagement.service;
 
 import com.assessment.riskmanagement.client.KrakenClient;
+import com.assessment.riskmanagement.dto.CursorPage;
+import com.assessment.riskmanagement.dto.PageCursor;
 import com.assessment.riskmanagement.dto.RiskCheckResponse;
 import com.assessment.riskmanagement.dto.kraken.KrakenBalanceResponse;
-import com.assessment.riskmanagement.entity.RiskEvent;
-import com.assessment.riskmanagement.entity.RiskEventType;
+import com.assessment.riskmanagement.event.RiskAlert;
+import com.assessment.riskmanagement.event.RiskAlertBus;
 import com.assessment.riskmanagement.entity.User;
+import com.assessment.riskmanagement.profiling.RiskCheckEvent;
 import com.assessment.riskmanagement.repository.RiskEventRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.assessment.riskmanagement.repository.projection.RiskEventSummary;
+import com.assessment.riskmanagement.repository.projection.UserRiskSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,12 +27,18 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Not transactional at class level: balance lookups and order cancels call Kraken, so database work
+ * is left to the short transactions of {@link UserService}, {@link OrderService} and the repositories.
+ */
 @Service
-@Transactional
 public class RiskService {
 
     private static final Logger logger = LoggerFactory.getLogger(RiskService.class);
+    // A breach disables trading until 00:01 UTC the next day, so the event is never older than this
+    private static final long TRADING_DISABLED_LOOKBACK_DAYS = 2;
 
     @Autowired
     private RiskEventRepository riskEventRepository;
@@ -43,15 +53,33 @@ public class RiskService {
     private KrakenClient krakenClient;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private RiskAlertBus riskAlertBus;
+
+    @Autowired
+    private LatencyService latencyService;
 
     public RiskCheckResponse checkUserRisk(User user) {
+        return checkUserRisk(user, true);
+    }
+
+    /**
+     * @param stampRiskCheck whether to save lastRiskCheck for this user; sweeps pass false and stamp
+     *                       all checked users in bulk afterwards
+     */
+    private RiskCheckResponse checkUserRisk(User user, boolean stampRiskCheck) {
+        long startNanos = System.nanoTime();
+        RiskCheckEvent event = new RiskCheckEvent();
+        event.begin();
+        event.clientId = user.getClientId();
+        event.outcome = "ERROR";
+        event.balanceSource = "database";
         try {
             // Use the currentBalance from database if available, otherwise try Kraken API
             BigDecimal currentBalance = user.getCurrentBalance();
 
             // If no currentBalance in database, try to get from Kraken API
             if (currentBalance == null) {
+                event.balanceSource = "kraken";
                 try {
                     KrakenBalanceResponse balanceInfo = krakenClient.getBalances(
                             user.getKrakenApiKey(),
@@ -79,70 +107,25 @@ public class RiskService {
             }
 
 
-            // Initialize response
-            RiskCheckResponse response = new RiskCheckResponse("success", "Risk check completed", "SAFE");
-            response.setUserId(user.getId().toString());
-            response.setClientId(user.getClientId());
-            response.setCurrentBalance(currentBalance);
-            response.setInitialBalance(user.getInitialBalance());
-            response.setRiskAbsoluteLimit(user.getDailyRiskAbsolute());
-            response.setRiskPercentageLimit(user.getDailyRiskPercentage());
-            response.setRiskEvents(new ArrayList<>());
-            response.setActionTaken("none");
-            response.setPositionsClosed(0);
-
             if (user.getInitialBalance() == null) {
                 user.setInitialBalance(currentBalance);
                 userService.updateLastRiskCheck(user);
                 logger.info("Set initial balance for user {}: {}", user.getClientId(), currentBalance);
-                response.setInitialBalance(currentBalance);
+                RiskCheckResponse response = newRiskCheckResponse(user.getId(), user.getClientId(), currentBalance,
+                        currentBalance, user.getDailyRiskAbsolute(), user.getDailyRiskPercentage());
                 response.setDailyLoss(BigDecimal.ZERO);
                 response.setDailyLossPercentage(BigDecimal.ZERO);
+                event.outcome = response.getRiskStatus();
                 return response;
             }
 
-
-            // Calculate loss amounts
-            BigDecimal lossAmount = user.getInitialBalance().subtract(currentBalance);
-            BigDecimal lossPercentage = BigDecimal.ZERO;
-            if (user.getInitialBalance().compareTo(BigDecimal.ZERO) > 0) {
-                lossPercentage = lossAmount.divide(user.getInitialBalance(), 4, RoundingMode.HALF_UP)
-                        .multiply(BigDecimal.valueOf(100));
-            }
-
-            response.setDailyLoss(lossAmount);
-            response.setDailyLossPercentage(lossPercentage);
-
-            // Determine risk status
-            boolean riskExceeded = false;
-            boolean atLimit = false;
-            String riskType = null;
-
-            // Check absolute risk limit first
-            if (user.getDailyRiskAbsolute() != null &&
-                lossAmount.compareTo(user.getDailyRiskAbsolute()) > 0) {
-                riskExceeded = true;
-                riskType = "absolute";
-            }
-            // Check percentage risk limit
-            else if (user.getDailyRiskPercentage() != null &&
-                     lossPercentage.compareTo(user.getDailyRiskPercentage()) > 0) {
-                riskExceeded = true;
-                riskType = "percentage";
-            }
-            // Check if at limit (exactly at threshold)
-            else if ((user.getDailyRiskAbsolute() != null &&
-                      lossAmount.compareTo(user.getDailyRiskAbsolute()) == 0) ||
-                     (user.getDailyRiskPercentage() != null &&
-                      lossPercentage.compareTo(user.getDailyRiskPercentage()) == 0)) {
-                atLimit = true;
-            }
+            RiskCheckResponse response = evaluateRisk(user.getId(), user.getClientId(), currentBalance,
+                    user.getInitialBalance(), user.getDailyRiskAbsolute(), user.getDailyRiskPercentage());
 
             // Set risk status and handle actions
-            if (riskExceeded) {
-                response.setRiskStatus("EXCEEDED");
-                response.setMessage("Risk threshold exceeded - Trading disabled");
-
+            if ("EXCEEDED".equals(response.getRiskStatus())) {
+                String riskType = user.getDailyRiskAbsolute() != null &&
+                        response.getDailyLoss().compareTo(user.getDailyRiskAbsolute()) > 0 ? "absolute" : "percentage";
                 BigDecimal riskThreshold = riskType.equals("absolute") ?
                     user.getDailyRiskAbsolute() : user.getDailyRiskPercentage();
 
@@ -150,30 +133,83 @@ public class RiskService {
                         user.getClientId(), riskType, riskThreshold);
 
                 List<String> actionsTaken = handleRiskExceeded(
-                        user, currentBalance, lossAmount, lossPercentage, riskThreshold, riskType
+                        user, currentBalance, response.getDailyLoss(), response.getDailyLossPercentage(),
+                        riskThreshold, riskType
                 );
 
                 response.setActionTaken("trading_disabled_positions_closed");
                 response.setPositionsClosed(actionsTaken.size() > 0 ?
                     extractPositionsClosedCount(actionsTaken) : 0);
-            } else if (atLimit) {
-                response.setRiskStatus("AT_LIMIT");
-                response.setMessage("Risk check completed - At risk limit");
-            } else {
-                response.setRiskStatus("SAFE");
-                response.setMessage("Risk check completed");
             }
 
-            userService.updateLastRiskCheck(user);
+            if (stampRiskCheck) {
+                userService.updateLastRiskCheck(user);
+            }
 
+            event.outcome = response.getRiskStatus();
             return response;
 
         } catch (Exception e) {
             logger.error("Error checking risk for user {}: {}", user.getClientId(), e.getMessage());
             throw new RuntimeException("Error checking risk for user", e);
+        } finally {
+            event.commit();
+            latencyService.record(LatencyService.RISK_CHECK, System.nanoTime() - startNanos);
         }
     }
 
+    /**
+     * Computes loss figures and the SAFE / AT_LIMIT / EXCEEDED status from plain values, without
+     * taking any action, so the sweep can classify users straight from a projection row.
+     */
+    private RiskCheckResponse evaluateRisk(UUID userId, String clientId, BigDecimal currentBalance,
+                                           BigDecimal initialBalance, BigDecimal riskAbsoluteLimit,
+                                           BigDecimal riskPercentageLimit) {
+        RiskCheckResponse response = newRiskCheckResponse(userId, clientId, currentBalance,
+                initialBalance, riskAbsoluteLimit, riskPercentageLimit);
+
+        // Calculate loss amounts
+        BigDecimal lossAmount = initialBalance.subtract(currentBalance);
+        BigDecimal lossPercentage = BigDecimal.ZERO;
+        if (initialBalance.compareTo(BigDecimal.ZERO) > 0) {
+            lossPercentage = lossAmount.divide(initialBalance, 4, RoundingMode.HALF_UP)
+                    .multiply(BigDecimal.valueOf(100));
+        }
+
+        response.setDailyLoss(lossAmount);
+        response.setDailyLossPercentage(lossPercentage);
+
+        if ((riskAbsoluteLimit != null && lossAmount.compareTo(riskAbsoluteLimit) > 0) ||
+            (riskPercentageLimit != null && lossPercentage.compareTo(riskPercentageLimit) > 0)) {
+            response.setRiskStatus("EXCEEDED");
+            response.setMessage("Risk threshold exceeded - Trading disabled");
+        }
+        // Check if at limit (exactly at threshold)
+        else if ((riskAbsoluteLimit != null && lossAmount.compareTo(riskAbsoluteLimit) == 0) ||
+                 (riskPercentageLimit != null && lossPercentage.compareTo(riskPercentageLimit) == 0)) {
+            response.setRiskStatus("AT_LIMIT");
+            response.setMessage("Risk check completed - At risk limit");
+        }
+
+        return response;
+    }
+
+    private RiskCheckResponse newRiskCheckResponse(UUID userId, String clientId, BigDecimal currentBalance,
+                                                   BigDecimal initialBalance, BigDecimal riskAbsoluteLimit,
+                                                   BigDecimal riskPercentageLimit) {
+        RiskCheckResponse response = new RiskCheckResponse("success", "Risk check completed", "SAFE");
+        response.setUserId(userId.toString());
+        response.setClientId(clientId);
+        response.setCurrentBalance(currentBalance);
+        response.setInitialBalance(initialBalance);
+        response.setRiskAbsoluteLimit(riskAbsoluteLimit);
+        response.setRiskPercentageLimit(riskPercentageLimit);
+        response.setRiskEvents(new ArrayList<>());
+        response.setActionTaken("none");
+        response.setPositionsClosed(0);
+        return response;
+    }
+
     private int extractPositionsClosedCount(List<String> actionsTaken) {
         for (String action : actionsTaken) {
             if (action.contains("Closed") && action.contains("open orders")) {
@@ -196,6 +232,7 @@ public class RiskService {
                                           BigDecimal lossAmount, BigDecimal lossPercentage,
                                           BigDecimal riskThreshold, String riskType) {
         List<String> actionsTaken = new ArrayList<>();
+        long breachNanos = System.nanoTime();
 
         try {
 
@@ -216,32 +253,15 @@ public class RiskService {
 
             userService.updateTradingStatus(user, false);
             actionsTaken.add("Trading disabled until " + nextDay.toString());
+            // Time to flat: from acting on the breach until orders are cancelled and trading is off
+            latencyService.record(LatencyService.TIME_TO_FLAT, System.nanoTime() - breachNanos);
 
 
-            RiskEvent riskEvent = new RiskEvent(user, RiskEventType.DAILY_RISK_EXCEEDED,
-                    "Daily risk limit exceeded: " + riskType + " threshold " + riskThreshold);
-            riskEvent.setCurrentBalance(currentBalance);
-            riskEvent.setInitialBalance(user.getInitialBalance());
-            riskEvent.setRiskThreshold(riskThreshold);
-            riskEvent.setLossAmount(lossAmount);
-            riskEvent.setLossPercentage(lossPercentage);
-            riskEvent.setTradingDisabledUntil(nextDay);
-
-            if (!closedOrders.isEmpty()) {
-                try {
-                    riskEvent.setOrdersClosed(objectMapper.writeValueAsString(closedOrders));
-                } catch (JsonProcessingException e) {
-                    logger.warn("Failed to serialize closed orders: {}", e.getMessage());
-                }
-            }
-
-            riskEventRepository.save(riskEvent);
-            actionsTaken.add("Risk event logged");
-
-
-            logger.error("RISK ALERT: User {} exceeded daily risk limit. " +
-                            "Loss: {} ({}%). Actions: {}",
-                    user.getClientId(), lossAmount, lossPercentage, String.join(", ", actionsTaken));
+            // Persisting the RiskEvent and alerting happen on the alert bus consumers, off this thread
+            riskAlertBus.publish(RiskAlert.breach(user.getId(), user.getClientId(), currentBalance,
+                    user.getInitialBalance(), riskThreshold, riskType, lossAmount, lossPercentage,
+                    closedOrders, nextDay));
+            actionsTaken.add("Risk event published");
 
         } catch (Exception e) {
             logger.error("Error handling risk exceeded for user {}: {}", user.getClientId(), e.getMessage());
@@ -252,33 +272,78 @@ public class RiskService {
     }
 
     public List<RiskCheckResponse> checkAllUsersRisk() {
-        List<RiskCheckResponse> results = new ArrayList<>();
-
         try {
+            List<UserRiskSnapshot> snapshots = userService.getActiveUserRiskSnapshots();
+
+            logger.info("Checking risk for {} active users", snapshots.size());
 
-            List<User> users = userService.getAllActiveUsers();
+            return checkUsersRisk(snapshots);
 
-            logger.info("Checking risk for {} active users", users.size());
+        } catch (Exception e) {
+            logger.error("Error in checkAllUsersRisk: {}", e.getMessage());
+            throw new RuntimeException("Error checking all users risk", e);
+        }
+    }
+
+    /**
+     * Checks the given users and stamps lastRiskCheck for them in bulk. The scheduled sweep calls this
+     * in batches so it can stop between them.
+     */
+    public List<RiskCheckResponse> checkUsersRisk(List<UserRiskSnapshot> snapshots) {
+        List<RiskCheckResponse> results = new ArrayList<>();
+
+        try {
 
-            for (User user : users) {
+            // Classify from a narrow projection; only users that need a balance fetch or an action
+            // are loaded as entities (by id, so the second-level cache can serve them)
+            List<UUID> checkedUserIds = new ArrayList<>(snapshots.size());
+            for (UserRiskSnapshot snapshot : snapshots) {
                 try {
-                    RiskCheckResponse riskResult = checkUserRisk(user);
+                    RiskCheckResponse riskResult = null;
+                    if (snapshot.getCurrentBalance() != null && snapshot.getInitialBalance() != null) {
+                        long startNanos = System.nanoTime();
+                        RiskCheckEvent event = new RiskCheckEvent();
+                        event.begin();
+                        riskResult = evaluateRisk(snapshot.getId(), snapshot.getClientId(),
+                                snapshot.getCurrentBalance(), snapshot.getInitialBalance(),
+                                snapshot.getDailyRiskAbsolute(), snapshot.getDailyRiskPercentage());
+                        // A breach is re-checked on the entity below and recorded there
+                        if (!"EXCEEDED".equals(riskResult.getRiskStatus())) {
+                            if (event.shouldCommit()) {
+                                event.clientId = snapshot.getClientId();
+                                event.outcome = riskResult.getRiskStatus();
+                                event.balanceSource = "snapshot";
+                                event.commit();
+                            }
+                            latencyService.record(LatencyService.RISK_CHECK, System.nanoTime() - startNanos);
+                        }
+                    }
+                    if (riskResult == null || "EXCEEDED".equals(riskResult.getRiskStatus())) {
+                        User user = userService.getUserEntityById(snapshot.getId())
+                                .orElseThrow(() -> new RuntimeException("User not found"));
+                        riskResult = checkUserRisk(user, false);
+                    }
                     results.add(riskResult);
+                    checkedUserIds.add(snapshot.getId());
 
                 } catch (Exception e) {
-                    logger.error("Error checking risk for user {}: {}", user.getClientId(), e.getMessage());
+                    logger.error("Error checking risk for user {}: {}", snapshot.getClientId(), e.getMessage());
                     RiskCheckResponse errorResult = new RiskCheckResponse("error", e.getMessage(), "ERROR");
-                    errorResult.setUserId(user.getId().toString());
-                    errorResult.setClientId(user.getClientId());
+                    errorResult.setUserId(snapshot.getId().toString());
+                    errorResult.setClientId(snapshot.getClientId());
                     results.add(errorResult);
                 }
             }
 
+            if (!checkedUserIds.isEmpty()) {
+                userService.updateLastRiskCheck(checkedUserIds);
+            }
+
             return results;
 
         } catch (Exception e) {
-            logger.error("Error in checkAllUsersRisk: {}", e.getMessage());
-            throw new RuntimeException("Error checking all users risk", e);
+            logger.error("Error in checkUsersRisk: {}", e.getMessage());
+            throw new RuntimeException("Error checking users risk", e);
         }
     }
 
@@ -292,6 +357,7 @@ public class RiskService {
 
             User user = userOpt.get();
             userService.updateTradingStatus(user, true);
+            riskAlertBus.publish(RiskAlert.reset(user.getId(), user.getClientId()));
             logger.info("Trading status reset for user: {}", clientId);
             return true;
 
@@ -305,29 +371,16 @@ public class RiskService {
         try {
             LocalDateTime nowUtc = LocalDateTime.now(ZoneOffset.UTC);
 
+            Map<UUID, String> reset = userService.enableTradingForExpiredRestrictions(
+                    nowUtc.minusDays(TRADING_DISABLED_LOOKBACK_DAYS), nowUtc);
 
-            List<User> users = userService.getAllActiveUsers().stream()
-                    .filter(user -> !user.getTradingEnabled())
-                    .toList();
+            reset.forEach((userId, clientId) -> riskAlertBus.publish(RiskAlert.reset(userId, clientId)));
 
-            int resetCount = 0;
-            for (User user : users) {
-
-                var recentEvent = riskEventRepository.findLatestTradingDisabledEvent(user, nowUtc);
-
-                if (recentEvent.isPresent() && 
-                    recentEvent.get().getTradingDisabledUntil().isBefore(nowUtc)) {
-                    userService.updateTradingStatus(user, true);
-                    resetCount++;
-                    logger.info("Re-enabled trading for user {}", user.getClientId());
-                }
+            if (!reset.isEmpty()) {
+                logger.info("Reset trading for {} users: {}", reset.size(), reset.values());
             }
 
-            if (resetCount > 0) {
-                logger.info("Reset trading for {} users", resetCount);
-            }
-
-            return resetCount;
+            return reset.size();
 
         } catch (Exception e) {
             logger.error("Error resetting daily trading: {}", e.getMessage());
@@ -336,14 +389,29 @@ public class RiskService {
     }
 
     @Transactional(readOnly = true)
-    public List<RiskEvent> getAllRiskEvents() {
-        return riskEventRepository.findAllOrderByCreatedAtDesc();
+    public CursorPage<RiskEventSummary> getAllRiskEvents(String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.clampPageSize(limit);
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+
+        List<RiskEventSummary> events = after == null ?
+                riskEventRepository.findPage(fetch) :
+                riskEventRepository.findPageAfter(after.getCreatedAt(), after.getId(), fetch);
+        return CursorPage.of(events, pageSize, RiskEventSummary::getCreatedAt, RiskEventSummary::getId);
     }
 
     @Transactional(readOnly = true)
-    public List<RiskEvent> getUserRiskEvents(String clientId) {
+    public CursorPage<RiskEventSummary> getUserRiskEvents(String clientId, String cursor, Integer limit) {
         User user = userService.getUserEntityByClientId(clientId)
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return riskEventRepository.findByUserOrderByCreatedAtDesc(user);
+
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.clampPageSize(limit);
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+
+        List<RiskEventSummary> events = after == null ?
+                riskEventRepository.findPageByUser(user, fetch) :
+                riskEventRepository.findPageByUserAfter(user, after.getCreatedAt(), after.getId(), fetch);
+        return CursorPage.of(events, pageSize, RiskEventSummary::getCreatedAt, RiskEventSummary::getId);
     }
 }
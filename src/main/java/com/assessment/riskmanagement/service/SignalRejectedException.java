@@ -0,0 +1,12 @@
+package com.assessment.riskmanagement.service;
+
+/**
+ * A trading signal that cannot succeed as sent, such as one for an unknown user or a user whose
+ * trading is disabled. Unlike other processing failures it is not worth retrying.
+ */
+public class SignalRejectedException extends RuntimeException {
+
+    public SignalRejectedException(String message) {
+        super(message);
+    }
+}
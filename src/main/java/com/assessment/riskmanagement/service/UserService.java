@@ -1,26 +1,35 @@
 package com.assessment.riskmanagement.service;
 
 import com.assessment.riskmanagement.client.KrakenClient;
+import com.assessment.riskmanagement.dto.CursorPage;
+import com.assessment.riskmanagement.dto.PageCursor;
 import com.assessment.riskmanagement.dto.UserRegistrationRequest;
 import com.assessment.riskmanagement.dto.UserResponse;
 import com.assessment.riskmanagement.dto.kraken.KrakenAccountResponse;
 import com.assessment.riskmanagement.entity.User;
 import com.assessment.riskmanagement.repository.UserRepository;
+import com.assessment.riskmanagement.repository.projection.UserCredentials;
+import com.assessment.riskmanagement.repository.projection.UserRiskSnapshot;
+import com.assessment.riskmanagement.repository.projection.UserSummary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +38,7 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
     private static final SecureRandom random = new SecureRandom();
+    private static final int RISK_CHECK_UPDATE_CHUNK = 500;
 
     @Autowired
     private UserRepository userRepository;
@@ -86,10 +96,19 @@ public class UserService {
     }
 
     @Transactional(readOnly = true)
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
+    public CursorPage<UserResponse> getAllUsers(String cursor, Integer limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        int pageSize = PageCursor.clampPageSize(limit);
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+
+        List<UserSummary> users = after == null ?
+                userRepository.findPage(fetch) :
+                userRepository.findPageAfter(after.getCreatedAt(), after.getId(), fetch);
+        CursorPage<UserSummary> page = CursorPage.of(users, pageSize, UserSummary::getCreatedAt, UserSummary::getId);
+
+        return new CursorPage<>(page.getItems().stream()
                 .map(this::convertToUserResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), page.getNextCursor());
     }
 
     @Transactional(readOnly = true)
@@ -98,7 +117,8 @@ public class UserService {
                 .map(this::convertToUserResponse);
     }
 
-    @Transactional(readOnly = true)
+    // Not readOnly: entities loaded here gate and feed write paths (trading enabled check, risk sweep),
+    // so they must come from the primary rather than a possibly lagging replica
     public Optional<User> getUserEntityByClientId(String clientId) {
         return userRepository.findByClientId(clientId);
     }
@@ -204,20 +224,74 @@ public class UserService {
         logger.info("User {} deleted successfully", clientId);
     }
 
-    @Transactional(readOnly = true)
+    // Not readOnly for the same reason as getUserEntityByClientId: the risk sweep writes these users back
     public List<User> getAllActiveUsers() {
         return userRepository.findAllActiveUsers();
     }
 
+    // Primary for the same reason; the sweep only loads full entities for users it has to act on
+    public List<UserRiskSnapshot> getActiveUserRiskSnapshots() {
+        return userRepository.findActiveUserRiskSnapshots();
+    }
+
+    public List<UserRiskSnapshot> getActiveUserRiskSnapshotsAfter(UUID after) {
+        return after == null ?
+                userRepository.findActiveUserRiskSnapshots() :
+                userRepository.findActiveUserRiskSnapshotsAfter(after);
+    }
+
+    public List<UserRiskSnapshot> getActiveUserRiskSnapshotsInBuckets(int fromBucket, int toBucket) {
+        return userRepository.findActiveUserRiskSnapshotsInBuckets(fromBucket, toBucket);
+    }
+
+    // A lagging replica can only cost an extra Kraken call; the updates go to the primary
+    @Transactional(readOnly = true)
+    public List<UserCredentials> getActiveUserCredentialsWithOpenOrdersInBuckets(int fromBucket, int toBucket) {
+        return userRepository.findActiveUserCredentialsWithOpenOrdersInBuckets(fromBucket, toBucket);
+    }
+
+    public long countActiveUsers() {
+        return userRepository.countByIsActiveTrue();
+    }
+
+    public Optional<User> getUserEntityById(UUID userId) {
+        return userRepository.findById(userId);
+    }
+
+    /**
+     * Re-enables every user whose trading restriction has expired with one locking SELECT and one
+     * set-based UPDATE, instead of a lookup and save per user.
+     *
+     * @return client ids of the re-enabled users, keyed by user id, for logging and reset alerts
+     */
+    public Map<UUID, String> enableTradingForExpiredRestrictions(LocalDateTime since, LocalDateTime now) {
+        return userRepository.enableTradingForExpiredRestrictions(since, now);
+    }
+
     public void updateTradingStatus(User user, boolean enabled) {
         user.setTradingEnabled(enabled);
         userRepository.save(user);
         logger.info("Trading status updated for user {}: {}", user.getClientId(), enabled);
     }
 
+    /**
+     * Saves balance changes the caller made to the user and stamps lastRiskCheck.
+     */
     public void updateLastRiskCheck(User user) {
-        user.setLastRiskCheck(java.time.LocalDateTime.now());
         userRepository.save(user);
+        userRepository.stampLastRiskCheck(List.of(user.getId()), LocalDateTime.now(ZoneOffset.UTC));
+    }
+
+    /**
+     * Stamps lastRiskCheck for many users with one bulk UPDATE per chunk instead of a save per user.
+     * The stamp does not go through the User cache regions, so sweeps leave them intact.
+     */
+    public void updateLastRiskCheck(List<UUID> userIds) {
+        LocalDateTime checkedAt = LocalDateTime.now(ZoneOffset.UTC);
+        for (int from = 0; from < userIds.size(); from += RISK_CHECK_UPDATE_CHUNK) {
+            List<UUID> chunk = userIds.subList(from, Math.min(from + RISK_CHECK_UPDATE_CHUNK, userIds.size()));
+            userRepository.stampLastRiskCheck(chunk, checkedAt);
+        }
     }
 
     public UserResponse updateUserBalance(String clientId, BigDecimal newBalance) {
@@ -246,6 +320,19 @@ public class UserService {
         return clientId;
     }
 
+    private UserResponse convertToUserResponse(UserSummary user) {
+        return new UserResponse(
+                user.getClientId(),
+                user.getIsActive(),
+                user.getTradingEnabled(),
+                user.getDailyRiskAbsolute(),
+                user.getDailyRiskPercentage(),
+                user.getInitialBalance(),
+                user.getCurrentBalance(),
+                user.getCreatedAt()
+        );
+    }
+
     private UserResponse convertToUserResponse(User user) {
         return new UserResponse(
                 user.getClientId(),
@@ -0,0 +1,151 @@
+package com.assessment.riskmanagement.tracing;
+
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory span exporter that keeps only the N slowest complete traces. Child spans are buffered per
+ * trace (bounded) until the root span ends; the finished trace then competes for a place in a min-heap
+ * ordered by root duration, so memory stays bounded however many requests are traced. Buffered children
+ * whose root has not arrived within {@code pending-max-age-seconds} are dropped, so traces whose root
+ * is never exported do not sit in the buffer until 10,000 newer ones push them out.
+ */
+@Component
+public class SlowestTraceExporter implements SpanExporter {
+
+    private static final int MAX_PENDING_TRACES = 10_000;
+    private static final int MAX_SPANS_PER_TRACE = 500;
+
+    private final int capacity;
+    private final long pendingMaxAgeNanos;
+    private final PriorityQueue<Map<String, Object>> slowest =
+            new PriorityQueue<>(Comparator.comparingLong(trace -> (Long) trace.get("duration_micros")));
+    // Insertion order is arrival order of each trace's first child, so the eldest entry is also the oldest
+    private final Map<String, PendingTrace> pending = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PendingTrace> eldest) {
+            return size() > MAX_PENDING_TRACES;
+        }
+    };
+
+    public SlowestTraceExporter(@Value("${risk-management.tracing.slowest-traces:20}") int capacity,
+                                @Value("${risk-management.tracing.pending-max-age-seconds:60}") long pendingMaxAgeSeconds) {
+        this.capacity = capacity;
+        this.pendingMaxAgeNanos = TimeUnit.SECONDS.toNanos(pendingMaxAgeSeconds);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        long now = System.nanoTime();
+        evictExpired(now);
+        for (SpanData span : spans) {
+            if (span.getParentSpanContext().isValid()) {
+                List<SpanData> children = pending.computeIfAbsent(span.getTraceId(), id -> new PendingTrace(now)).spans;
+                if (children.size() < MAX_SPANS_PER_TRACE) {
+                    children.add(span);
+                }
+                continue;
+            }
+
+            PendingTrace pendingTrace = pending.remove(span.getTraceId());
+            List<SpanData> children = pendingTrace != null ? pendingTrace.spans : null;
+            long durationMicros = micros(span);
+            if (slowest.size() >= capacity && durationMicros <= (Long) slowest.peek().get("duration_micros")) {
+                continue;
+            }
+
+            List<Map<String, Object>> spanViews = new ArrayList<>();
+            spanViews.add(toView(span, span));
+            if (children != null) {
+                children.sort(Comparator.comparingLong(SpanData::getStartEpochNanos));
+                for (SpanData child : children) {
+                    spanViews.add(toView(child, span));
+                }
+            }
+
+            Map<String, Object> trace = new LinkedHashMap<>();
+            trace.put("trace_id", span.getTraceId());
+            trace.put("name", span.getName());
+            trace.put("start", Instant.ofEpochSecond(0, span.getStartEpochNanos()).toString());
+            trace.put("duration_micros", durationMicros);
+            trace.put("spans", spanViews);
+            slowest.add(trace);
+            if (slowest.size() > capacity) {
+                slowest.poll();
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    /**
+     * The slowest traces seen so far, slowest first.
+     */
+    public synchronized List<Map<String, Object>> getSlowestTraces(int limit) {
+        List<Map<String, Object>> traces = new ArrayList<>(slowest);
+        traces.sort(Comparator.comparingLong((Map<String, Object> trace) -> (Long) trace.get("duration_micros")).reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+
+    public synchronized void clear() {
+        slowest.clear();
+        pending.clear();
+    }
+
+    private void evictExpired(long now) {
+        Iterator<PendingTrace> it = pending.values().iterator();
+        while (it.hasNext() && now - it.next().firstSeenNanos > pendingMaxAgeNanos) {
+            it.remove();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static Map<String, Object> toView(SpanData span, SpanData root) {
+        Map<String, Object> view = new HashMap<>();
+        view.put("span_id", span.getSpanId());
+        view.put("parent_span_id", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+        view.put("name", span.getName());
+        view.put("offset_micros", TimeUnit.NANOSECONDS.toMicros(span.getStartEpochNanos() - root.getStartEpochNanos()));
+        view.put("duration_micros", micros(span));
+        view.put("error", span.getStatus().getStatusCode() == StatusCode.ERROR);
+        return view;
+    }
+
+    private static long micros(SpanData span) {
+        return TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos());
+    }
+
+    private static final class PendingTrace {
+
+        private final long firstSeenNanos;
+        private final List<SpanData> spans = new ArrayList<>();
+
+        private PendingTrace(long firstSeenNanos) {
+            this.firstSeenNanos = firstSeenNanos;
+        }
+    }
+}
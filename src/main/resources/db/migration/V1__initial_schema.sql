@@ -0,0 +1,53 @@
+-- Baseline schema matching the JPA entities (validated by ddl-auto: validate in the prod profile).
+-- IF NOT EXISTS lets this run against databases that were created before migrations shipped.
+
+CREATE TABLE IF NOT EXISTS users (
+    id                    UUID PRIMARY KEY,
+    client_id             VARCHAR(50)  NOT NULL UNIQUE,
+    kraken_api_key        TEXT         NOT NULL,
+    kraken_private_key    TEXT         NOT NULL,
+    daily_risk_absolute   NUMERIC(19, 2),
+    daily_risk_percentage NUMERIC(5, 2),
+    initial_balance       NUMERIC(19, 2),
+    current_balance       NUMERIC(19, 2),
+    is_active             BOOLEAN      NOT NULL,
+    trading_enabled       BOOLEAN      NOT NULL,
+    last_risk_check       TIMESTAMP(6),
+    created_at            TIMESTAMP(6) NOT NULL,
+    updated_at            TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id                          UUID PRIMARY KEY,
+    user_id                     UUID           NOT NULL REFERENCES users (id),
+    symbol                      VARCHAR(20)    NOT NULL,
+    strategy                    VARCHAR(100)   NOT NULL,
+    side                        VARCHAR(255)   NOT NULL CHECK (side IN ('BUY', 'SELL')),
+    quantity                    NUMERIC(19, 8) NOT NULL,
+    price                       NUMERIC(19, 8),
+    stop_loss_percentage        NUMERIC(5, 2),
+    max_risk_per_day_percentage NUMERIC(5, 2),
+    inverse                     BOOLEAN        NOT NULL,
+    pyramid                     BOOLEAN        NOT NULL,
+    status                      VARCHAR(255)   NOT NULL CHECK (status IN ('PENDING', 'OPEN', 'CLOSED', 'CANCELLED', 'FAILED')),
+    kraken_order_id             VARCHAR(100),
+    error_message               TEXT,
+    created_at                  TIMESTAMP(6)   NOT NULL,
+    updated_at                  TIMESTAMP(6),
+    executed_at                 TIMESTAMP(6)
+);
+
+CREATE TABLE IF NOT EXISTS risk_events (
+    id                     UUID PRIMARY KEY,
+    user_id                UUID         NOT NULL REFERENCES users (id),
+    event_type             VARCHAR(255) NOT NULL CHECK (event_type IN ('DAILY_RISK_EXCEEDED', 'STOP_LOSS_TRIGGERED', 'TRADING_DISABLED', 'ORDERS_CLOSED')),
+    description            TEXT         NOT NULL,
+    current_balance        NUMERIC(19, 2),
+    initial_balance        NUMERIC(19, 2),
+    risk_threshold         NUMERIC(19, 2),
+    loss_amount            NUMERIC(19, 2),
+    loss_percentage        NUMERIC(5, 2),
+    orders_closed          TEXT,
+    trading_disabled_until TIMESTAMP(6),
+    created_at             TIMESTAMP(6) NOT NULL
+);
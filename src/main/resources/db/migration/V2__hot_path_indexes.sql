@@ -0,0 +1,30 @@
+-- Indexes matched to the repository queries on the request and monitoring paths.
+
+-- OrderRepository.findOpenOrdersByUser, findByUserAndStatus, summarizeByStatus
+CREATE INDEX IF NOT EXISTS idx_orders_user_status
+    ON orders (user_id, status);
+
+-- OrderRepository.findByUserAndStrategyAndSymbolAndStatus (webhook pyramid/inverse lookup)
+CREATE INDEX IF NOT EXISTS idx_orders_user_strategy_symbol_status
+    ON orders (user_id, strategy, symbol, status);
+
+-- OrderRepository.findPageByUser / findPageByUserAfter keyset pagination
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_id
+    ON orders (user_id, created_at DESC, id DESC);
+
+-- RiskEventRepository.findPageByUser / findPageByUserAfter
+CREATE INDEX IF NOT EXISTS idx_risk_events_user_created_id
+    ON risk_events (user_id, created_at DESC, id DESC);
+
+-- RiskEventRepository.findPage / findPageAfter
+CREATE INDEX IF NOT EXISTS idx_risk_events_created_id
+    ON risk_events (created_at DESC, id DESC);
+
+-- UserRepositoryCustomImpl expired-restriction EXISTS / NOT EXISTS probes: only breach events carry trading_disabled_until
+CREATE INDEX IF NOT EXISTS idx_risk_events_user_disabled_until
+    ON risk_events (user_id, trading_disabled_until)
+    WHERE trading_disabled_until IS NOT NULL;
+
+-- UserRepository.findPage / findPageAfter
+CREATE INDEX IF NOT EXISTS idx_users_created_id
+    ON users (created_at DESC, id DESC);
@@ -0,0 +1,107 @@
+-- Range-partition orders and risk_events by month on created_at.
+-- PostgreSQL requires the partition key in the primary key, so both tables get PK (id, created_at).
+-- Monthly partitions are named <table>_YYYYMM; PartitionMaintenanceService creates upcoming months
+-- and archives expired ones.
+
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent TEXT, month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    partition_name TEXT := parent || '_' || to_char(month_start, 'YYYYMM');
+    month_begin    DATE := date_trunc('month', month_start)::date;
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                   partition_name, parent, month_begin, (month_begin + INTERVAL '1 month')::date);
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION ensure_monthly_partitions(parent TEXT, from_month DATE, to_month DATE) RETURNS INTEGER AS $$
+DECLARE
+    month_start DATE := date_trunc('month', from_month)::date;
+    months      INTEGER := 0;
+BEGIN
+    WHILE month_start <= to_month LOOP
+        PERFORM ensure_monthly_partition(parent, month_start);
+        month_start := (month_start + INTERVAL '1 month')::date;
+        months := months + 1;
+    END LOOP;
+    RETURN months;
+END;
+$$ LANGUAGE plpgsql;
+
+-- orders ---------------------------------------------------------------------------------------
+
+CREATE TABLE orders_partitioned (
+    id                          UUID           NOT NULL,
+    user_id                     UUID           NOT NULL REFERENCES users (id),
+    symbol                      VARCHAR(20)    NOT NULL,
+    strategy                    VARCHAR(100)   NOT NULL,
+    side                        VARCHAR(255)   NOT NULL CHECK (side IN ('BUY', 'SELL')),
+    quantity                    NUMERIC(19, 8) NOT NULL,
+    price                       NUMERIC(19, 8),
+    stop_loss_percentage        NUMERIC(5, 2),
+    max_risk_per_day_percentage NUMERIC(5, 2),
+    inverse                     BOOLEAN        NOT NULL,
+    pyramid                     BOOLEAN        NOT NULL,
+    status                      VARCHAR(255)   NOT NULL CHECK (status IN ('PENDING', 'OPEN', 'CLOSED', 'CANCELLED', 'FAILED')),
+    kraken_order_id             VARCHAR(100),
+    error_message               TEXT,
+    created_at                  TIMESTAMP(6)   NOT NULL,
+    updated_at                  TIMESTAMP(6),
+    executed_at                 TIMESTAMP(6),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER TABLE orders RENAME TO orders_legacy;
+ALTER TABLE orders_partitioned RENAME TO orders;
+
+SELECT ensure_monthly_partitions('orders',
+        COALESCE((SELECT MIN(created_at) FROM orders_legacy), now())::date,
+        (now() + INTERVAL '3 months')::date);
+
+-- Explicit column lists: tables created by Hibernate before migrations shipped order columns differently
+INSERT INTO orders (id, user_id, symbol, strategy, side, quantity, price, stop_loss_percentage, max_risk_per_day_percentage,
+        inverse, pyramid, status, kraken_order_id, error_message, created_at, updated_at, executed_at)
+    SELECT id, user_id, symbol, strategy, side, quantity, price, stop_loss_percentage, max_risk_per_day_percentage,
+        inverse, pyramid, status, kraken_order_id, error_message, created_at, updated_at, executed_at FROM orders_legacy;
+DROP TABLE orders_legacy;
+
+CREATE INDEX idx_orders_user_status ON orders (user_id, status);
+CREATE INDEX idx_orders_user_strategy_symbol_status ON orders (user_id, strategy, symbol, status);
+CREATE INDEX idx_orders_user_created_id ON orders (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_orders_id ON orders (id);
+
+-- risk_events ----------------------------------------------------------------------------------
+
+CREATE TABLE risk_events_partitioned (
+    id                     UUID         NOT NULL,
+    user_id                UUID         NOT NULL REFERENCES users (id),
+    event_type             VARCHAR(255) NOT NULL CHECK (event_type IN ('DAILY_RISK_EXCEEDED', 'STOP_LOSS_TRIGGERED', 'TRADING_DISABLED', 'ORDERS_CLOSED')),
+    description            TEXT         NOT NULL,
+    current_balance        NUMERIC(19, 2),
+    initial_balance        NUMERIC(19, 2),
+    risk_threshold         NUMERIC(19, 2),
+    loss_amount            NUMERIC(19, 2),
+    loss_percentage        NUMERIC(5, 2),
+    orders_closed          TEXT,
+    trading_disabled_until TIMESTAMP(6),
+    created_at             TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER TABLE risk_events RENAME TO risk_events_legacy;
+ALTER TABLE risk_events_partitioned RENAME TO risk_events;
+
+SELECT ensure_monthly_partitions('risk_events',
+        COALESCE((SELECT MIN(created_at) FROM risk_events_legacy), now())::date,
+        (now() + INTERVAL '3 months')::date);
+
+INSERT INTO risk_events (id, user_id, event_type, description, current_balance, initial_balance, risk_threshold, loss_amount,
+        loss_percentage, orders_closed, trading_disabled_until, created_at)
+    SELECT id, user_id, event_type, description, current_balance, initial_balance, risk_threshold, loss_amount,
+        loss_percentage, orders_closed, trading_disabled_until, created_at FROM risk_events_legacy;
+DROP TABLE risk_events_legacy;
+
+CREATE INDEX idx_risk_events_user_created_id ON risk_events (user_id, created_at DESC, id DESC);
+CREATE INDEX idx_risk_events_created_id ON risk_events (created_at DESC, id DESC);
+CREATE INDEX idx_risk_events_user_disabled_until ON risk_events (user_id, trading_disabled_until)
+    WHERE trading_disabled_until IS NOT NULL;
@@ -0,0 +1,15 @@
+-- Stable hash bucket per user for the time-sliced risk sweep: each tick checks a contiguous range of
+-- buckets, so a slice is an index range scan instead of the whole users table.
+-- New users get Math.floorMod(clientId.hashCode(), 1024) from the entity; existing rows are backfilled
+-- with PostgreSQL's hashtext, which spreads them just as evenly.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS sweep_bucket SMALLINT;
+
+UPDATE users SET sweep_bucket = hashtext(client_id) & 1023 WHERE sweep_bucket IS NULL;
+
+ALTER TABLE users ALTER COLUMN sweep_bucket SET NOT NULL;
+
+-- UserRepository.findActiveUserRiskSnapshotsInBuckets
+CREATE INDEX IF NOT EXISTS idx_users_active_sweep_bucket
+    ON users (sweep_bucket)
+    WHERE is_active = true;
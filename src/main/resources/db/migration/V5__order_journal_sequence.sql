@@ -0,0 +1,9 @@
+-- Journal sequence of the webhook signal that placed each order. SignalJournalReplayer looks it up
+-- before replaying a signal, so an order placed just before a crash is not placed a second time.
+
+ALTER TABLE orders ADD COLUMN IF NOT EXISTS journal_sequence BIGINT;
+
+-- OrderRepository.findByJournalSequenceCreatedSince; only webhook orders carry a sequence
+CREATE INDEX IF NOT EXISTS idx_orders_journal_sequence
+    ON orders (journal_sequence, created_at)
+    WHERE journal_sequence IS NOT NULL;
@@ -0,0 +1,46 @@
+-- A DEFAULT partition for orders and risk_events, so an insert whose month has no partition yet (the
+-- maintenance job failed or fell behind, or a clock ran ahead) is stored instead of failing.
+-- ensure_monthly_partition now moves rows the DEFAULT partition holds for a month into that month's
+-- partition as it creates it; PostgreSQL refuses to create the partition while such rows remain.
+
+CREATE TABLE IF NOT EXISTS orders_default PARTITION OF orders DEFAULT;
+CREATE TABLE IF NOT EXISTS risk_events_default PARTITION OF risk_events DEFAULT;
+
+CREATE OR REPLACE FUNCTION ensure_monthly_partition(parent TEXT, month_start DATE) RETURNS TEXT AS $$
+DECLARE
+    partition_name    TEXT := parent || '_' || to_char(month_start, 'YYYYMM');
+    default_partition TEXT := parent || '_default';
+    month_begin       DATE := date_trunc('month', month_start)::date;
+    month_end         DATE := (date_trunc('month', month_start) + INTERVAL '1 month')::date;
+    stranded          BOOLEAN := false;
+    moved             BIGINT;
+BEGIN
+    IF to_regclass(partition_name) IS NOT NULL THEN
+        RETURN partition_name;
+    END IF;
+
+    IF to_regclass(default_partition) IS NOT NULL THEN
+        EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE created_at >= %L AND created_at < %L)',
+                       default_partition, month_begin, month_end)
+            INTO stranded;
+    END IF;
+
+    IF NOT stranded THEN
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, parent, month_begin, month_end);
+        RETURN partition_name;
+    END IF;
+
+    -- Build the month outside the parent, move its rows out of DEFAULT, then attach it. ATTACH adds the
+    -- parent's indexes and foreign keys; all of it commits or rolls back with the calling statement.
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS)', partition_name, parent);
+    EXECUTE format('WITH moved AS (DELETE FROM %I WHERE created_at >= %L AND created_at < %L RETURNING *) '
+                   'INSERT INTO %I SELECT * FROM moved',
+                   default_partition, month_begin, month_end, partition_name);
+    GET DIAGNOSTICS moved = ROW_COUNT;
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                   parent, partition_name, month_begin, month_end);
+    RAISE NOTICE 'Moved % rows from % into new partition %', moved, default_partition, partition_name;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
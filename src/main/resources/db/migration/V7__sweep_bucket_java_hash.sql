@@ -0,0 +1,27 @@
+-- V4 backfilled sweep_bucket with hashtext(client_id) & 1023, while User assigns new rows
+-- Math.floorMod(clientId.hashCode(), 1024). The two disagree, so a backfilled user sat in a different
+-- bucket from the one its own entity would compute. Reimplement Java's String.hashCode (31-based
+-- polynomial over UTF-16 code units, wrapped to a signed 32-bit int) and recompute the buckets with it.
+
+CREATE OR REPLACE FUNCTION java_string_hash(s TEXT) RETURNS INTEGER AS $$
+DECLARE
+    h BIGINT := 0;
+    c INTEGER;
+BEGIN
+    FOR i IN 1 .. length(s) LOOP
+        c := ascii(substr(s, i, 1));
+        IF c > 65535 THEN
+            -- Java holds code points above the BMP as a surrogate pair
+            h := (h * 31 + 55296 + ((c - 65536) >> 10)) & 4294967295;
+            h := (h * 31 + 56320 + ((c - 65536) & 1023)) & 4294967295;
+        ELSE
+            h := (h * 31 + c) & 4294967295;
+        END IF;
+    END LOOP;
+    RETURN CASE WHEN h >= 2147483648 THEN h - 4294967296 ELSE h END;
+END;
+$$ LANGUAGE plpgsql IMMUTABLE STRICT;
+
+-- & 1023 on the signed int equals Math.floorMod(hash, 1024)
+UPDATE users SET sweep_bucket = java_string_hash(client_id) & 1023
+    WHERE sweep_bucket <> java_string_hash(client_id) & 1023;
@@ -0,0 +1,64 @@
+package com.assessment.riskmanagement;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Database for the Spring {@code @Tag("benchmark")} tests: the H2 database from application.yml by
+ * default, or a PostgreSQL container migrated by Flyway with {@code -Dbenchmark.database=postgresql}.
+ * One container is shared by every benchmark in the run.
+ */
+public final class BenchmarkDatabase {
+
+    private static PostgreSQLContainer<?> postgres;
+
+    private BenchmarkDatabase() {
+    }
+
+    public static String name() {
+        return isPostgres() ? "PostgreSQL" : "H2";
+    }
+
+    /**
+     * Skips the calling test class when PostgreSQL was asked for but Docker is not available. Call
+     * from {@code @BeforeAll}, which runs before the Spring context is built.
+     */
+    public static void assumeAvailable() {
+        if (isPostgres()) {
+            assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "PostgreSQL benchmarks need Docker");
+        }
+    }
+
+    /**
+     * Points the context at the PostgreSQL container, if that is the selected database. For use from
+     * a {@code @DynamicPropertySource} method.
+     */
+    public static void register(DynamicPropertyRegistry registry) {
+        if (!isPostgres()) {
+            return;
+        }
+        PostgreSQLContainer<?> container = postgres();
+        registry.add("spring.datasource.url", () -> container.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", container::getUsername);
+        registry.add("spring.datasource.password", container::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+    }
+
+    private static boolean isPostgres() {
+        return "postgresql".equalsIgnoreCase(System.getProperty("benchmark.database", "h2"));
+    }
+
+    private static synchronized PostgreSQLContainer<?> postgres() {
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+            postgres.start();
+        }
+        return postgres;
+    }
+}
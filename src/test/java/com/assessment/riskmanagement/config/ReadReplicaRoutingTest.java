@@ -0,0 +1,149 @@
+package com.assessment.riskmanagement.config;
+
+import com.assessment.riskmanagement.entity.User;
+import com.assessment.riskmanagement.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Read/write routing with the replica enabled. Primary and replica are two separate in-memory H2
+ * databases, so {@code DATABASE()} tells which one a transaction was given. The replica holds only
+ * a table for the configured lag query, which lets each test set the lag the guard sees.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "risk-management.datasource.replica.enabled=true",
+        "risk-management.datasource.replica.url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1;"
+                + "INIT=CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE PRECISION)",
+        "risk-management.datasource.replica.lag-query=SELECT seconds FROM replica_lag",
+        "risk-management.datasource.replica.max-lag-seconds=5",
+        // Checks run only when a test calls the guard
+        "risk-management.datasource.replica.lag-check-interval-ms=3600000"})
+class ReadReplicaRoutingTest {
+
+    private static final String PRIMARY = "ROUTING_PRIMARY";
+    private static final String REPLICA = "ROUTING_REPLICA";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @Autowired
+    private ReplicaLagGuard replicaLagGuard;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private JdbcTemplate replica;
+
+    @DynamicPropertySource
+    static void isolate(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("read-replica-routing");
+        registry.add("risk-management.journal.directory", () -> directory.resolve("journal").toString());
+        registry.add("risk-management.alerts.file.path", () -> directory.resolve("risk-alerts.ndjson").toString());
+        registry.add("risk-management.alerts.dead-letter.path", () -> directory.resolve("dead-letter.ndjson").toString());
+    }
+
+    @BeforeEach
+    void replicaWithinBudget() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE PRECISION)");
+        setLag(0);
+        replicaLagGuard.checkReplicaLag();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplicaAndOthersThePrimary() {
+        assertTrue(routingDataSource.isReplicaAvailable());
+        assertEquals(REPLICA, databaseIn(true));
+        assertEquals(PRIMARY, databaseIn(false));
+    }
+
+    @Test
+    void readOnlyWorkJoiningAReadWriteTransactionStaysOnThePrimary() {
+        String joined = new TransactionTemplate(transactionManager).execute(status -> databaseIn(true));
+
+        assertEquals(PRIMARY, joined);
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        String clientId = "routing-" + UUID.randomUUID();
+        User user = new User(clientId, "key", "secret");
+        user.setInitialBalance(BigDecimal.valueOf(10_000));
+        user.setCurrentBalance(BigDecimal.valueOf(10_000));
+
+        userRepository.save(user);
+
+        assertEquals(1, new JdbcTemplate(primaryDataSource).queryForObject(
+                "SELECT COUNT(*) FROM users WHERE client_id = ?", Integer.class, clientId));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                + "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'USERS'", Integer.class));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaLags() {
+        setLag(60);
+        replicaLagGuard.checkReplicaLag();
+
+        assertFalse(routingDataSource.isReplicaAvailable());
+        assertEquals(PRIMARY, databaseIn(true));
+
+        setLag(1);
+        replicaLagGuard.checkReplicaLag();
+
+        assertEquals(REPLICA, databaseIn(true));
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheLagQueryFails() {
+        replica.execute("DROP TABLE replica_lag");
+        replicaLagGuard.checkReplicaLag();
+
+        assertFalse(routingDataSource.isReplicaAvailable());
+        assertEquals(PRIMARY, databaseIn(true));
+    }
+
+    private void setLag(double seconds) {
+        replica.update("DELETE FROM replica_lag");
+        replica.update("INSERT INTO replica_lag (seconds) VALUES (?)", seconds);
+    }
+
+    private String databaseIn(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> new JdbcTemplate(dataSource).queryForObject("SELECT DATABASE()", String.class));
+    }
+}
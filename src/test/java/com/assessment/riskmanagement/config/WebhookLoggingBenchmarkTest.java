@@ -0,0 +1,220 @@
+package com.assessment.riskmanagement.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Webhook throughput under three logging setups. Each runs the full service against the simulated
+ * exchange with no added exchange latency, so log output is a visible share of the work.
+ * <ul>
+ *   <li>baseline: logging as it was before logback-spring.xml. It uses synchronous console and file
+ *       appenders, show-sql, and DEBUG for org.hibernate.SQL and org.springframework.web.</li>
+ *   <li>default: logback-spring.xml with its async appenders and the JSON file, at dev log levels.</li>
+ *   <li>high-throughput: the JSON file only, never blocking, and 1 in 100 KrakenClient lines.</li>
+ * </ul>
+ * Closed loop: {@value #CLIENTS} clients each send their next signal when the previous one is
+ * answered. Run with {@code mvn -Pbenchmark test}; results are appended to
+ * {@code target/benchmark/webhook-logging/results.txt}.
+ */
+@Tag("benchmark")
+class WebhookLoggingBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookLoggingBenchmarkTest.class);
+    private static final int USERS = 20;
+    private static final int CLIENTS = 8;
+    private static final int WARMUP_REQUESTS = Integer.getInteger("benchmark.warmup-requests", 5_000);
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 5_000);
+    private static final String NO_EXCHANGE_LATENCY = "risk-management.simulated-exchange.latency-ms=0";
+    private static final String NO_EXCHANGE_JITTER = "risk-management.simulated-exchange.jitter-ms=0";
+    // Logging is configured before dynamic properties are added, so its files are set inline
+    private static final String OUTPUT_DIRECTORY = "target/benchmark/webhook-logging";
+    private static final String LOG_FILE = "logging.file.name=" + OUTPUT_DIRECTORY + "/risk-management.log";
+    private static final String JSON_LOG_FILE = "risk-management.logging.json-file=" + OUTPUT_DIRECTORY + "/risk-management.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http = HttpClient.newHttpClient();
+
+    // A fresh port and journal per context, so one run's journal is not replayed by the next
+    @DynamicPropertySource
+    static void isolate(DynamicPropertyRegistry registry) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Path directory = Files.createTempDirectory("webhook-logging-benchmark");
+        registry.add("server.port", () -> port);
+        registry.add("risk-management.journal.directory", () -> directory.resolve("journal").toString());
+        registry.add("risk-management.alerts.file.path", () -> directory.resolve("risk-alerts.ndjson").toString());
+        registry.add("risk-management.alerts.dead-letter.path", () -> directory.resolve("dead-letter.ndjson").toString());
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT, properties = {
+            NO_EXCHANGE_LATENCY,
+            NO_EXCHANGE_JITTER,
+            LOG_FILE,
+            "logging.config=classpath:logback-benchmark-baseline.xml",
+            "spring.jpa.show-sql=true",
+            "logging.level.org.hibernate.SQL=DEBUG",
+            "logging.level.org.springframework.web=DEBUG"})
+    @ActiveProfiles("simulated-exchange")
+    @DirtiesContext
+    class Baseline {
+
+        @Test
+        void webhookThroughput(@LocalServerPort int port) throws Exception {
+            run("baseline (synchronous, SQL and web DEBUG)", port);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT, properties = {
+            NO_EXCHANGE_LATENCY,
+            NO_EXCHANGE_JITTER,
+            LOG_FILE,
+            JSON_LOG_FILE})
+    @ActiveProfiles("simulated-exchange")
+    @DirtiesContext
+    class DefaultProfile {
+
+        @Test
+        void webhookThroughput(@LocalServerPort int port) throws Exception {
+            run("default (async appenders)", port);
+        }
+    }
+
+    @Nested
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.DEFINED_PORT, properties = {
+            NO_EXCHANGE_LATENCY,
+            NO_EXCHANGE_JITTER,
+            LOG_FILE,
+            JSON_LOG_FILE})
+    @ActiveProfiles({"simulated-exchange", "high-throughput"})
+    @DirtiesContext
+    class HighThroughputProfile {
+
+        @Test
+        void webhookThroughput(@LocalServerPort int port) throws Exception {
+            run("high-throughput (JSON only, sampled)", port);
+        }
+    }
+
+    private void run(String setup, int port) throws Exception {
+        String baseUrl = "http://localhost:" + port;
+        List<String> clientIds = registerUsers(baseUrl);
+
+        send(baseUrl, clientIds, WARMUP_REQUESTS, new ConcurrentHashMap<>());
+        Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        send(baseUrl, clientIds, REQUESTS, statuses);
+        double seconds = (System.nanoTime() - start) / (double) TimeUnit.SECONDS.toNanos(1);
+
+        String result = String.format("Webhook throughput, logging %s: %d requests in %.2f s, %d requests/s, statuses %s",
+                setup, REQUESTS, seconds, Math.round(REQUESTS / seconds), statuses);
+        logger.info(result);
+        // Under the high-throughput profile the log only reaches the JSON file, so results are collected here too
+        Path results = Path.of(OUTPUT_DIRECTORY, "results.txt");
+        Files.createDirectories(results.getParent());
+        Files.writeString(results, result + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        long accepted = statuses.getOrDefault(200, new LongAdder()).sum();
+        assertTrue(accepted > REQUESTS * 0.9, "most signals should place an order: " + statuses);
+    }
+
+    private List<String> registerUsers(String baseUrl) throws IOException, InterruptedException {
+        List<String> clientIds = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            Map<String, Object> registration = Map.of(
+                    "krakenApiKey", "benchmark-" + UUID.randomUUID(),
+                    "krakenPrivateKey", "cHJpdmF0ZS1rZXk=",
+                    "dailyRiskPercentage", new BigDecimal("5"));
+            HttpResponse<String> response = post(baseUrl + "/api/v1/users/register", registration);
+            assertTrue(response.statusCode() == 201, "registration failed: " + response.body());
+            String clientId = objectMapper.readTree(response.body()).path("client_id").asText();
+            http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/users/" + clientId + "/balance"))
+                            .header("Content-Type", "application/json")
+                            .PUT(HttpRequest.BodyPublishers.ofString("{\"currentBalance\": 10000.00}"))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            clientIds.add(clientId);
+        }
+        return clientIds;
+    }
+
+    private void send(String baseUrl, List<String> clientIds, int requests, Map<Integer, LongAdder> statuses)
+            throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                int share = requests / CLIENTS + (c < requests % CLIENTS ? 1 : 0);
+                Random random = new Random(c);
+                futures.add(clients.submit(() -> {
+                    for (int i = 0; i < share; i++) {
+                        Map<String, Object> signal = new LinkedHashMap<>();
+                        signal.put("client_id", clientIds.get(random.nextInt(clientIds.size())));
+                        signal.put("symbol", random.nextBoolean() ? "PF_XBTUSD" : "PF_ETHUSD");
+                        signal.put("strategy", "strategy-" + random.nextInt(3));
+                        signal.put("action", random.nextBoolean() ? "buy" : "sell");
+                        signal.put("quantity", BigDecimal.valueOf(1 + random.nextInt(10), 3));
+                        signal.put("maxriskperday%", new BigDecimal("5"));
+                        // The simulator never fills orders; pyramiding lets every signal place one
+                        signal.put("pyramid", true);
+                        int status = post(baseUrl + "/api/v1/orders/webhook", signal).statusCode();
+                        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private HttpResponse<String> post(String url, Object body) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+}
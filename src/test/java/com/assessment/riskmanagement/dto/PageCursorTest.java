@@ -0,0 +1,77 @@
+package com.assessment.riskmanagement.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PageCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 15, 10, 30, 45, 123456000);
+        UUID id = UUID.fromString("018e4a2b-7c3d-7e4f-8a1b-2c3d4e5f6a7b");
+
+        PageCursor decoded = PageCursor.decode(new PageCursor(createdAt, id).encode());
+
+        assertEquals(createdAt, decoded.getCreatedAt());
+        assertEquals(id, decoded.getId());
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String cursor = new PageCursor(LocalDateTime.of(2024, 12, 31, 23, 59, 59), UUID.randomUUID()).encode();
+
+        assertEquals(-1, cursor.indexOf('+'));
+        assertEquals(-1, cursor.indexOf('/'));
+        assertEquals(-1, cursor.indexOf('='));
+    }
+
+    @Test
+    void missingCursorDecodesToFirstPage() {
+        assertNull(PageCursor.decode(null));
+        assertNull(PageCursor.decode(""));
+        assertNull(PageCursor.decode("   "));
+    }
+
+    @Test
+    void rejectsNonBase64Cursor() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not a cursor!"));
+    }
+
+    @Test
+    void rejectsCursorWithoutSeparator() {
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(encode("2024-03-15T10:30:45")));
+    }
+
+    @Test
+    void rejectsCursorWithBadTimestamp() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PageCursor.decode(encode("yesterday|" + UUID.randomUUID())));
+    }
+
+    @Test
+    void rejectsCursorWithBadId() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PageCursor.decode(encode("2024-03-15T10:30:45|not-a-uuid")));
+    }
+
+    @Test
+    void clampsPageSize() {
+        assertEquals(PageCursor.DEFAULT_PAGE_SIZE, PageCursor.clampPageSize(null));
+        assertEquals(PageCursor.DEFAULT_PAGE_SIZE, PageCursor.clampPageSize(0));
+        assertEquals(PageCursor.DEFAULT_PAGE_SIZE, PageCursor.clampPageSize(-5));
+        assertEquals(10, PageCursor.clampPageSize(10));
+        assertEquals(PageCursor.MAX_PAGE_SIZE, PageCursor.clampPageSize(PageCursor.MAX_PAGE_SIZE + 1));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,146 @@
+package com.assessment.riskmanagement.entity.id;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Insert throughput and primary key size for random (v4) against time-ordered (v7) ids. Each variant
+ * inserts the same order-shaped rows through batched JDBC into its own table, so the id is the only
+ * difference. On H2 each variant gets its own database file and the file size is reported; on
+ * PostgreSQL the size of the primary key index itself. Run with {@code mvn -Pbenchmark test};
+ * {@code -Dbenchmark.rows} changes the row count.
+ */
+@Tag("benchmark")
+class UuidKeyBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(UuidKeyBenchmarkTest.class);
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 500_000);
+    private static final int BATCH = 1_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void h2() throws SQLException, IOException {
+        for (Variant variant : Variant.values()) {
+            // Untimed pass in a scratch database so both timed runs see a warmed-up JIT
+            try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:warmup_" + variant, "sa", "")) {
+                insert(connection, "warmup", variant, ROWS / 10);
+            }
+        }
+        for (Variant variant : Variant.values()) {
+            String url = "jdbc:h2:file:" + directory.resolve(variant.name());
+            long nanos;
+            try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+                nanos = insert(connection, "bench", variant, ROWS);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CHECKPOINT SYNC");
+                }
+            }
+            long fileBytes = Files.size(directory.resolve(variant.name() + ".mv.db"));
+            report("H2", variant, nanos, "database file", fileBytes);
+        }
+    }
+
+    @Test
+    void postgres() throws SQLException {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "PostgreSQL run needs Docker");
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine")) {
+            postgres.start();
+            try (Connection connection = DriverManager.getConnection(
+                    postgres.getJdbcUrl() + "&reWriteBatchedInserts=true", postgres.getUsername(), postgres.getPassword())) {
+                for (Variant variant : Variant.values()) {
+                    insert(connection, "warmup_" + variant.name().toLowerCase(), variant, ROWS / 10);
+                }
+                long[] pkeyBytes = new long[Variant.values().length];
+                for (Variant variant : Variant.values()) {
+                    String table = "bench_" + variant.name().toLowerCase();
+                    long nanos = insert(connection, table, variant, ROWS);
+                    pkeyBytes[variant.ordinal()] = relationSize(connection, table + "_pkey");
+                    report("PostgreSQL", variant, nanos, "primary key index", pkeyBytes[variant.ordinal()]);
+                }
+                assertTrue(pkeyBytes[Variant.V7.ordinal()] < pkeyBytes[Variant.V4.ordinal()],
+                        "right-edge inserts should leave a denser index than random ones");
+            }
+        }
+    }
+
+    private static long insert(Connection connection, String table, Variant variant, int rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table + " (id UUID PRIMARY KEY, user_id UUID NOT NULL, " +
+                    "symbol VARCHAR(20) NOT NULL, quantity NUMERIC(19, 8) NOT NULL, created_at TIMESTAMP NOT NULL)");
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        UUID userId = UUID.randomUUID();
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, user_id, symbol, quantity, created_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 1; i <= rows; i++) {
+                insert.setObject(1, variant.ids.get());
+                insert.setObject(2, userId);
+                insert.setString(3, "PF_XBTUSD");
+                insert.setBigDecimal(4, BigDecimal.ONE);
+                insert.setTimestamp(5, new Timestamp(System.currentTimeMillis()));
+                insert.addBatch();
+                if (i % BATCH == 0 || i == rows) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long relationSize(Connection connection, String relation) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+            statement.setString(1, relation);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    private static void report(String database, Variant variant, long nanos, String measured, long bytes) {
+        double seconds = nanos / (double) TimeUnit.SECONDS.toNanos(1);
+        logger.info("{} {} ids: {} rows in {} s ({} rows/s), {} {} KiB", database, variant, ROWS,
+                String.format("%.2f", seconds), Math.round(ROWS / seconds), measured, bytes / 1024);
+    }
+
+    private enum Variant {
+        V4(UUID::randomUUID),
+        V7(UuidV7Generator::nextUuid);
+
+        private final Supplier<UUID> ids;
+
+        Variant(Supplier<UUID> ids) {
+            this.ids = ids;
+        }
+    }
+}
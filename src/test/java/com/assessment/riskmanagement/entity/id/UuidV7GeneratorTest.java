@@ -0,0 +1,97 @@
+package com.assessment.riskmanagement.entity.id;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void setsVersionAndVariantBits() {
+        UUID uuid = UuidV7Generator.nextUuid();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertEquals(0x7L, (uuid.getMostSignificantBits() >>> 12) & 0xF);
+        assertEquals(0b10L, uuid.getLeastSignificantBits() >>> 62);
+    }
+
+    @Test
+    void embedsCurrentMillisecondTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7Generator.nextUuid();
+        long after = System.currentTimeMillis();
+
+        long millis = uuid.getMostSignificantBits() >>> 16;
+        // The generator borrows milliseconds ahead of the clock when a burst exhausts the counter
+        assertTrue(millis >= before && millis <= after + 1_000, "timestamp " + millis + " outside [" + before + ", " + after + "]");
+        assertEquals(Instant.ofEpochMilli(millis), UuidV7Generator.timestampOf(uuid));
+    }
+
+    @Test
+    void timestampOfIgnoresOtherVersions() {
+        assertNull(UuidV7Generator.timestampOf(UUID.randomUUID()));
+    }
+
+    @Test
+    void consecutiveIdsAreStrictlyIncreasing() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            ids.add(UuidV7Generator.nextUuid());
+        }
+
+        for (int i = 1; i < ids.size(); i++) {
+            UUID previous = ids.get(i - 1);
+            UUID current = ids.get(i);
+            assertTrue(Long.compareUnsigned(previous.getMostSignificantBits(), current.getMostSignificantBits()) < 0,
+                    previous + " is not before " + current);
+            // The text form is what PostgreSQL and H2 compare, so it must sort the same way
+            assertTrue(previous.toString().compareTo(current.toString()) < 0);
+        }
+    }
+
+    @Test
+    void concurrentIdsAreUnique() throws InterruptedException {
+        int threads = 8;
+        int perThread = 20_000;
+        ConcurrentLinkedQueue<UUID> ids = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(UuidV7Generator.nextUuid());
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        Set<Long> prefixes = new HashSet<>();
+        for (UUID id : ids) {
+            prefixes.add(id.getMostSignificantBits());
+        }
+        // Timestamp plus counter alone is unique across threads, before the random tail is considered
+        assertEquals(threads * perThread, prefixes.size());
+    }
+}
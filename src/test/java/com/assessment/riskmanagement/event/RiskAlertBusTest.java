@@ -0,0 +1,274 @@
+package com.assessment.riskmanagement.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RiskAlertBusTest {
+
+    private final RecordingDeadLetter deadLetter = new RecordingDeadLetter();
+    private RiskAlertBus bus;
+
+    @AfterEach
+    void stopBus() {
+        if (bus != null) {
+            bus.stop();
+        }
+    }
+
+    @Test
+    void deliversEveryAlertInOrderToEachConsumer() {
+        RecordingConsumer first = new RecordingConsumer("first");
+        RecordingConsumer second = new RecordingConsumer("second");
+        bus = new RiskAlertBus(List.of(first, second), deadLetter, 64, 3);
+        bus.start();
+
+        List<RiskAlert> alerts = alerts(5_000);
+        alerts.forEach(this::publishWhenFree);
+
+        awaitTrue(() -> first.received().size() == alerts.size() && second.received().size() == alerts.size());
+        assertEquals(alerts, first.received());
+        assertEquals(alerts, second.received());
+        assertEquals(alerts.size(), bus.getPublishedCount());
+        awaitTrue(() -> bus.getBacklog() == 0);
+    }
+
+    @Test
+    void deliversAlertsFromConcurrentPublishers() throws InterruptedException {
+        RecordingConsumer consumer = new RecordingConsumer("consumer");
+        bus = new RiskAlertBus(List.of(consumer), deadLetter, 16, 3);
+        bus.start();
+
+        int publishers = 4;
+        int perPublisher = 2_000;
+        List<Thread> threads = new ArrayList<>();
+        List<List<RiskAlert>> published = new ArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            List<RiskAlert> alerts = alerts(perPublisher);
+            published.add(alerts);
+            Thread thread = new Thread(() -> alerts.forEach(this::publishWhenFree));
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        awaitTrue(() -> consumer.received().size() == publishers * perPublisher);
+        List<RiskAlert> received = consumer.received();
+        for (List<RiskAlert> alerts : published) {
+            // Alerts from one publisher keep their relative order
+            List<RiskAlert> fromPublisher = new ArrayList<>(received);
+            fromPublisher.retainAll(alerts);
+            assertEquals(alerts, fromPublisher);
+        }
+    }
+
+    @Test
+    void retriesTransientFailuresWithoutSkippingAlerts() {
+        AtomicInteger failuresLeft = new AtomicInteger(2);
+        RecordingConsumer consumer = new RecordingConsumer("flaky") {
+            @Override
+            public void onBatch(List<RiskAlert> alerts) {
+                if (failuresLeft.getAndDecrement() > 0) {
+                    throw new QueryTimeoutException("statement timeout");
+                }
+                super.onBatch(alerts);
+            }
+        };
+        bus = new RiskAlertBus(List.of(consumer), deadLetter, 8, 3);
+        bus.start();
+
+        List<RiskAlert> alerts = alerts(20);
+        alerts.forEach(this::publishWhenFree);
+
+        awaitTrue(() -> consumer.received().size() == alerts.size());
+        assertEquals(alerts, consumer.received());
+        assertTrue(failuresLeft.get() < 0);
+        assertTrue(deadLetter.received().isEmpty());
+        awaitTrue(() -> bus.getBacklog() == 0);
+    }
+
+    @Test
+    void deadLettersBatchWhenTransientFailuresOutlastAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+        RecordingConsumer consumer = new RecordingConsumer("down") {
+            @Override
+            public void onBatch(List<RiskAlert> alerts) {
+                calls.incrementAndGet();
+                throw new CannotAcquireLockException("lock wait timeout");
+            }
+        };
+        bus = new RiskAlertBus(List.of(consumer), deadLetter, 8, 2);
+
+        List<RiskAlert> alerts = alerts(3);
+        alerts.forEach(bus::publish);
+        bus.start();
+
+        awaitTrue(() -> bus.getBacklog() == 0);
+        assertEquals(alerts, deadLetter.received());
+        assertEquals(2, calls.get(), "one batch, two attempts, no per-alert retries");
+        assertEquals(3, bus.getDeadLetteredCount());
+    }
+
+    @Test
+    void deadLettersOnlyThePoisonAlertOfAFailedBatch() {
+        List<RiskAlert> alerts = alerts(5);
+        RiskAlert poison = alerts.get(2);
+        AtomicInteger poisonCalls = new AtomicInteger();
+        RecordingConsumer consumer = new RecordingConsumer("persistence") {
+            @Override
+            public void onBatch(List<RiskAlert> batch) {
+                if (batch.contains(poison)) {
+                    poisonCalls.incrementAndGet();
+                    throw new IllegalStateException("user no longer exists");
+                }
+                super.onBatch(batch);
+            }
+        };
+        bus = new RiskAlertBus(List.of(consumer), deadLetter, 8, 5);
+
+        // Published before start so the worker drains all five as one batch
+        alerts.forEach(bus::publish);
+        bus.start();
+
+        awaitTrue(() -> bus.getBacklog() == 0);
+        List<RiskAlert> expected = new ArrayList<>(alerts);
+        expected.remove(poison);
+        assertEquals(expected, consumer.received());
+        assertEquals(List.of(poison), deadLetter.received());
+        assertEquals(2, poisonCalls.get(), "non-transient failures are not retried");
+    }
+
+    @Test
+    void publisherDropsInsteadOfBlockingWhenConsumerIsAFullRingBehind() {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingConsumer consumer = new RecordingConsumer("slow") {
+            @Override
+            public void onBatch(List<RiskAlert> alerts) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onBatch(alerts);
+            }
+        };
+        bus = new RiskAlertBus(List.of(consumer), deadLetter, 4, 1);
+        bus.start();
+
+        // The consumer's sequence does not move while it is stuck, so only four slots are free
+        List<RiskAlert> alerts = alerts(6);
+        List<Boolean> accepted = new ArrayList<>();
+        for (RiskAlert alert : alerts) {
+            accepted.add(bus.publish(alert));
+        }
+
+        assertEquals(List.of(true, true, true, true, false, false), accepted);
+        assertEquals(2, bus.getDroppedCount());
+        assertEquals(4, bus.getPublishedCount());
+
+        release.countDown();
+        awaitTrue(() -> bus.getBacklog() == 0);
+        assertEquals(alerts.subList(0, 4), consumer.received());
+        assertTrue(bus.publish(alerts(1).get(0)), "slots free up once the consumer catches up");
+    }
+
+    @Test
+    void classifiesTransientFailuresThroughTheCauseChain() {
+        assertTrue(RiskAlertBus.isTransient(new QueryTimeoutException("timeout")));
+        assertTrue(RiskAlertBus.isTransient(new jakarta.persistence.QueryTimeoutException("timeout")));
+        assertTrue(RiskAlertBus.isTransient(new IllegalStateException("wrapped",
+                new SQLTransientConnectionException("connection is not available, request timed out"))));
+        assertFalse(RiskAlertBus.isTransient(new DataIntegrityViolationException("fk_risk_events_user")));
+        assertFalse(RiskAlertBus.isTransient(new IllegalStateException("bug")));
+    }
+
+    // The bus drops on a full ring; these tests want every alert through, so they wait for a free slot
+    private void publishWhenFree(RiskAlert alert) {
+        while (!bus.publish(alert)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static List<RiskAlert> alerts(int count) {
+        List<RiskAlert> alerts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            alerts.add(RiskAlert.reset(UUID.randomUUID(), "client-" + i));
+        }
+        return alerts;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("condition not met within 10 seconds");
+            }
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static class RecordingConsumer implements RiskAlertConsumer {
+
+        private final String name;
+        private final List<RiskAlert> received = Collections.synchronizedList(new ArrayList<>());
+
+        RecordingConsumer(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void onBatch(List<RiskAlert> alerts) {
+            received.addAll(alerts);
+        }
+
+        List<RiskAlert> received() {
+            synchronized (received) {
+                return new ArrayList<>(received);
+            }
+        }
+    }
+
+    private static class RecordingDeadLetter implements RiskAlertDeadLetter {
+
+        private final List<RiskAlert> received = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void deadLetter(String consumer, List<RiskAlert> alerts, Exception cause) {
+            received.addAll(alerts);
+        }
+
+        List<RiskAlert> received() {
+            synchronized (received) {
+                return new ArrayList<>(received);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.assessment.riskmanagement.journal;
+
+import com.assessment.riskmanagement.dto.TradingSignalRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignalJournalTest {
+
+    private static final int HEADER_BYTES = 17;
+    private static final int SEGMENT_SIZE = 4096;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversSignalsWithoutProcessedRecordAfterCrash() throws IOException {
+        SignalJournal journal = open(SEGMENT_SIZE);
+        Instant before = Instant.ofEpochMilli(System.currentTimeMillis());
+        long first = journal.append(signal("client-0"));
+        long second = journal.append(signal("client-1"));
+        long third = journal.append(signal("client-2"));
+        Instant after = Instant.ofEpochMilli(System.currentTimeMillis());
+        journal.markProcessed(second);
+        // No close(): the process dies with no checkpoint written
+
+        SignalJournal reopened = open(SEGMENT_SIZE);
+        Map<Long, SignalJournal.RecoveredSignal> recovered = reopened.drainRecovered();
+
+        assertEquals(List.of(first, third), new ArrayList<>(recovered.keySet()));
+        assertEquals("client-0", recovered.get(first).getSignal().getClientId());
+        assertEquals("client-2", recovered.get(third).getSignal().getClientId());
+        Instant journaledAt = recovered.get(first).getJournaledAt();
+        assertNotNull(journaledAt);
+        assertFalse(journaledAt.isBefore(before) || journaledAt.isAfter(after));
+        assertEquals(2, reopened.getInFlightCount());
+        assertTrue(reopened.drainRecovered().isEmpty(), "recovered signals are handed out once");
+    }
+
+    @Test
+    void stopsAtTornRecordAndOverwritesIt() throws IOException {
+        SignalJournal journal = open(SEGMENT_SIZE);
+        List<TradingSignalRequest> signals = List.of(signal("client-0"), signal("client-1"), signal("client-2"));
+        List<Long> sequences = new ArrayList<>();
+        for (TradingSignalRequest signal : signals) {
+            sequences.add(journal.append(signal));
+        }
+
+        // Flip a payload byte of the last record, as if the crash hit while its page was being written
+        int tornOffset = recordBytes(signals.get(0)) + recordBytes(signals.get(1));
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer b = ByteBuffer.allocate(1);
+            long position = tornOffset + HEADER_BYTES + Long.BYTES + 1;
+            channel.read(b, position);
+            b.put(0, (byte) (b.get(0) ^ 0xFF));
+            b.rewind();
+            channel.write(b, position);
+        }
+
+        SignalJournal reopened = open(SEGMENT_SIZE);
+        assertEquals(sequences.subList(0, 2), new ArrayList<>(reopened.drainRecovered().keySet()));
+
+        // The torn record's sequence and space are reused by the next append
+        long replacement = reopened.append(signal("client-3"));
+        assertEquals(sequences.get(2).longValue(), replacement);
+
+        Map<Long, SignalJournal.RecoveredSignal> recovered = open(SEGMENT_SIZE).drainRecovered();
+        assertEquals(List.of(sequences.get(0), sequences.get(1), replacement), new ArrayList<>(recovered.keySet()));
+        assertEquals("client-3", recovered.get(replacement).getSignal().getClientId());
+    }
+
+    @Test
+    void stopsAtRecordOfUnknownType() throws IOException {
+        SignalJournal journal = open(SEGMENT_SIZE);
+        List<TradingSignalRequest> signals = List.of(signal("client-0"), signal("client-1"), signal("client-2"));
+        List<Long> sequences = new ArrayList<>();
+        for (TradingSignalRequest signal : signals) {
+            sequences.add(journal.append(signal));
+        }
+
+        // Give the last record a type this version does not write, with a checksum that still matches
+        int offset = recordBytes(signals.get(0)) + recordBytes(signals.get(1));
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer record = ByteBuffer.allocate(recordBytes(signals.get(2)));
+            channel.read(record, offset);
+            record.put(16, (byte) 1);
+            CRC32C crc = new CRC32C();
+            crc.update(record.slice(8, record.capacity() - 8));
+            record.putInt(4, (int) crc.getValue());
+            record.rewind();
+            channel.write(record, offset);
+        }
+
+        SignalJournal reopened = open(SEGMENT_SIZE);
+        assertEquals(sequences.subList(0, 2), new ArrayList<>(reopened.drainRecovered().keySet()));
+        assertEquals(sequences.get(2).longValue(), reopened.append(signal("client-3")));
+    }
+
+    @Test
+    void checkpointDeletesProcessedSegmentsAcrossRolls() throws IOException {
+        TradingSignalRequest sample = signal("client-00");
+        // Room for three signals per segment, so twenty signals roll several times
+        int segmentSize = 3 * recordBytes(sample) + 2 * (HEADER_BYTES + Long.BYTES);
+        SignalJournal journal = open(segmentSize);
+
+        List<Long> sequences = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            sequences.add(journal.append(signal(String.format("client-%02d", i))));
+        }
+        for (int i = 0; i < 19; i++) {
+            journal.markProcessed(sequences.get(i));
+        }
+        int segmentsBefore = segments().size();
+        assertTrue(segmentsBefore > 3, "expected several segments, found " + segmentsBefore);
+
+        journal.checkpoint();
+
+        List<Path> remaining = segments();
+        assertTrue(remaining.size() < segmentsBefore, "checkpoint should delete fully processed segments");
+        assertTrue(Files.exists(directory.resolve("checkpoint")));
+        assertEquals(1, journal.getInFlightCount());
+
+        SignalJournal reopened = open(segmentSize);
+        Map<Long, SignalJournal.RecoveredSignal> recovered = reopened.drainRecovered();
+        long last = sequences.get(19);
+        assertEquals(List.of(last), new ArrayList<>(recovered.keySet()));
+        assertEquals("client-19", recovered.get(last).getSignal().getClientId());
+        assertTrue(reopened.append(signal("client-20")) > last, "sequences continue after the recovered tail");
+    }
+
+    private SignalJournal open(int segmentSize) throws IOException {
+        SignalJournal journal = new SignalJournal(objectMapper, directory.toString(), segmentSize);
+        journal.open();
+        return journal;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+
+    private int recordBytes(TradingSignalRequest signal) throws IOException {
+        return HEADER_BYTES + Long.BYTES + objectMapper.writeValueAsBytes(signal).length;
+    }
+
+    private static TradingSignalRequest signal(String clientId) {
+        TradingSignalRequest signal = new TradingSignalRequest();
+        signal.setClientId(clientId);
+        signal.setSymbol("PF_XBTUSD");
+        signal.setStrategy("trend");
+        signal.setAction("buy");
+        signal.setOrderQty(new BigDecimal("0.5"));
+        signal.setMaxRiskPerDayPercent(new BigDecimal("2"));
+        return signal;
+    }
+}
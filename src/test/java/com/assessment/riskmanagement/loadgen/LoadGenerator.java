@@ -0,0 +1,487 @@
+package com.assessment.riskmanagement.loadgen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Open-loop load generator for the webhook and balance endpoints. Requests are issued on a fixed
+ * schedule at {@code loadgen.rate} per second regardless of how fast the service answers, and latency
+ * is measured from each request's intended start time, so a stalled service is charged for every
+ * request that should have been sent during the stall (coordinated omission correction). Service time
+ * from the actual send is reported alongside for comparison.
+ *
+ * <p>Registers {@code loadgen.users} users first, then either replays a JSONL capture given by
+ * {@code loadgen.replay} or synthesizes a mix of signals across symbols, strategies and
+ * pyramid/inverse flags, with balance updates drawn as a random walk plus occasional jumps to the
+ * sample balances in {@code balance_update*.json}. Point the service at the simulated exchange with
+ * the {@code simulated-exchange} profile. Run with {@code mvn -Ploadgen test-compile exec:java -Dloadgen.rate=200}.
+ */
+public final class LoadGenerator {
+
+    static final String SIGNAL = "signal";
+    static final String BALANCE = "balance";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Settings settings;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient http;
+    private final Random random;
+    private final Map<String, Stats> statsByType = new ConcurrentHashMap<>();
+    private final Recorder intervalLatency = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram sendLag = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder completed = new LongAdder();
+
+    private LoadGenerator(Settings settings) {
+        this.settings = settings;
+        this.random = new Random(settings.seed);
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        new LoadGenerator(settings).run();
+        System.exit(0);
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Target %s: %.1f req/s for %ds after %ds warmup, %d users, max %d in flight%n",
+                settings.baseUrl, settings.rate, settings.durationSeconds, settings.warmupSeconds,
+                settings.users, settings.maxInFlight);
+
+        List<String> clientIds = registerUsers();
+        Workload workload = settings.replay != null ?
+                new ReplayWorkload(Path.of(settings.replay), clientIds) :
+                new SyntheticWorkload(clientIds);
+
+        Semaphore inFlight = new Semaphore(settings.maxInFlight);
+        long periodNanos = Math.round(TimeUnit.SECONDS.toNanos(1) / settings.rate);
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + TimeUnit.SECONDS.toNanos(settings.warmupSeconds);
+        long endNanos = measureFromNanos + TimeUnit.SECONDS.toNanos(settings.durationSeconds);
+        long nextReportNanos = startNanos + TimeUnit.SECONDS.toNanos(settings.reportIntervalSeconds);
+
+        for (long i = 0; ; i++) {
+            long intendedNanos = startNanos + i * periodNanos;
+            if (intendedNanos >= endNanos) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intendedNanos) {
+                LockSupport.parkNanos(intendedNanos - now);
+            }
+            if (now >= nextReportNanos) {
+                reportInterval(now - startNanos, inFlight);
+                nextReportNanos += TimeUnit.SECONDS.toNanos(settings.reportIntervalSeconds);
+            }
+
+            // Blocking here is fine: latency is still charged from the intended start time
+            inFlight.acquire();
+            LoadRequest request = workload.next();
+            long sentNanos = System.nanoTime();
+            boolean measured = intendedNanos >= measureFromNanos;
+            if (measured) {
+                sendLag.recordValue(toMicros(sentNanos - intendedNanos));
+            }
+            http.sendAsync(jsonRequest(request.method, request.path, request.body), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long doneNanos = System.nanoTime();
+                        inFlight.release();
+                        completed.increment();
+                        intervalLatency.recordValue(toMicros(doneNanos - intendedNanos));
+                        if (measured) {
+                            stats(request.type).record(intendedNanos, sentNanos, doneNanos,
+                                    response != null ? response.statusCode() : -1);
+                        }
+                    });
+        }
+
+        if (!inFlight.tryAcquire(settings.maxInFlight, settings.timeoutSeconds + 5, TimeUnit.SECONDS)) {
+            System.out.printf("%d requests still in flight after the drain timeout%n",
+                    settings.maxInFlight - inFlight.availablePermits());
+        }
+        report(endNanos - measureFromNanos);
+        printServerLatency();
+    }
+
+    private List<String> registerUsers() throws IOException, InterruptedException {
+        List<String> clientIds = new ArrayList<>();
+        for (int i = 0; i < settings.users; i++) {
+            byte[] privateKey = new byte[64];
+            random.nextBytes(privateKey);
+
+            Map<String, Object> registration = new LinkedHashMap<>();
+            registration.put("krakenApiKey", "loadgen-" + i + "-" + UUID.randomUUID());
+            registration.put("krakenPrivateKey", Base64.getEncoder().encodeToString(privateKey));
+            registration.put("dailyRiskPercentage", settings.dailyRiskPercentage);
+            registration.put("dailyRiskAbsolute", settings.dailyRiskAbsolute);
+
+            HttpResponse<String> response = http.send(
+                    jsonRequest("POST", "/api/v1/users/register", objectMapper.writeValueAsString(registration)),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("User registration failed with " + response.statusCode() +
+                        ": " + response.body());
+            }
+            String clientId = objectMapper.readTree(response.body()).path("client_id").asText();
+
+            // Seed the stored balance so risk checks start from the database rather than the exchange
+            http.send(jsonRequest("PUT", "/api/v1/users/" + clientId + "/balance",
+                            objectMapper.writeValueAsString(Map.of("currentBalance", settings.initialBalance))),
+                    HttpResponse.BodyHandlers.discarding());
+            clientIds.add(clientId);
+        }
+        System.out.printf("Registered %d users%n", clientIds.size());
+        return clientIds;
+    }
+
+    private HttpRequest jsonRequest(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(settings.baseUrl + path))
+                .timeout(Duration.ofSeconds(settings.timeoutSeconds))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private Stats stats(String type) {
+        return statsByType.computeIfAbsent(type, t -> new Stats());
+    }
+
+    private void reportInterval(long elapsedNanos, Semaphore inFlight) {
+        Histogram interval = intervalLatency.getIntervalHistogram();
+        System.out.printf("[%4ds] completed=%d in-flight=%d interval p50=%.1fms p99=%.1fms max=%.1fms%n",
+                TimeUnit.NANOSECONDS.toSeconds(elapsedNanos), completed.sum(),
+                settings.maxInFlight - inFlight.availablePermits(),
+                millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)),
+                millis(interval.getMaxValue()));
+    }
+
+    private void report(long measuredNanos) {
+        double seconds = measuredNanos / 1e9;
+        System.out.println();
+        System.out.printf("Offered %.1f req/s over %.0fs; sender lag p99=%.2fms max=%.2fms%n",
+                settings.rate, seconds, millis(sendLag.getValueAtPercentile(99)), millis(sendLag.getMaxValue()));
+
+        Stats total = new Stats();
+        for (Map.Entry<String, Stats> entry : new TreeMap<>(statsByType).entrySet()) {
+            printStats(entry.getKey(), entry.getValue(), seconds);
+            total.add(entry.getValue());
+        }
+        printStats("all", total, seconds);
+    }
+
+    private void printStats(String name, Stats stats, double seconds) {
+        long count = stats.corrected.getTotalCount();
+        System.out.printf("%-8s count=%d achieved=%.1f req/s statuses=%s%n", name, count, count / seconds,
+                stats.statusCounts.entrySet().stream()
+                        .sorted(Map.Entry.comparingByKey())
+                        .map(e -> (e.getKey() < 0 ? "failed" : e.getKey().toString()) + ":" + e.getValue().sum())
+                        .collect(Collectors.joining(" ")));
+        if (count > 0) {
+            printPercentiles("  latency (from intended start)", stats.corrected);
+            printPercentiles("  service time (from send)     ", stats.service);
+        }
+    }
+
+    private static void printPercentiles(String label, Histogram histogram) {
+        System.out.printf("%s p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f ms%n", label,
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    private void printServerLatency() {
+        try {
+            HttpResponse<String> response = http.send(HttpRequest.newBuilder(
+                            URI.create(settings.baseUrl + "/api/v1/monitoring/latency")).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                JsonNode latency = objectMapper.readTree(response.body()).path("latency");
+                System.out.println();
+                System.out.println("Server-side latency (ms):");
+                System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(latency));
+            }
+        } catch (IOException e) {
+            System.out.println("Could not fetch server-side latency: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)), HIGHEST_TRACKABLE_MICROS);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * One generated request; the body is serialized up front so sending does no JSON work.
+     */
+    static final class LoadRequest {
+
+        final String type;
+        final String method;
+        final String path;
+        final String body;
+
+        LoadRequest(String type, String method, String path, String body) {
+            this.type = type;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+        }
+    }
+
+    interface Workload {
+        LoadRequest next() throws IOException;
+    }
+
+    private final class SyntheticWorkload implements Workload {
+
+        private final List<String> clientIds;
+        private final BigDecimal[] balances;
+        private final List<BigDecimal> riskyBalances;
+
+        private SyntheticWorkload(List<String> clientIds) throws IOException {
+            this.clientIds = clientIds;
+            this.balances = new BigDecimal[clientIds.size()];
+            Arrays.fill(balances, settings.initialBalance);
+            this.riskyBalances = loadBalanceSamples();
+        }
+
+        @Override
+        public LoadRequest next() throws IOException {
+            int user = random.nextInt(clientIds.size());
+            String clientId = clientIds.get(user);
+
+            if (random.nextDouble() < settings.balanceRatio) {
+                BigDecimal balance;
+                if (!riskyBalances.isEmpty() && random.nextDouble() < settings.riskyRatio) {
+                    balance = riskyBalances.get(random.nextInt(riskyBalances.size()));
+                } else {
+                    // Random walk with 0.2% steps
+                    double step = 1 + random.nextGaussian() * 0.002;
+                    balance = balances[user].multiply(BigDecimal.valueOf(step)).setScale(2, RoundingMode.HALF_UP);
+                }
+                balances[user] = balance;
+                return new LoadRequest(BALANCE, "PUT", "/api/v1/users/" + clientId + "/balance",
+                        objectMapper.writeValueAsString(Map.of("currentBalance", balance)));
+            }
+
+            Map<String, Object> signal = new LinkedHashMap<>();
+            signal.put("client_id", clientId);
+            signal.put("symbol", settings.symbols.get(random.nextInt(settings.symbols.size())));
+            signal.put("strategy", settings.strategies.get(random.nextInt(settings.strategies.size())));
+            signal.put("action", random.nextBoolean() ? "buy" : "sell");
+            signal.put("quantity", BigDecimal.valueOf(1 + random.nextInt(10), 3));
+            signal.put("maxriskperday%", settings.dailyRiskPercentage);
+            signal.put("stopLoss%", new BigDecimal("2.5"));
+            signal.put("inverse", random.nextDouble() < settings.inverseRatio);
+            signal.put("pyramid", random.nextDouble() < settings.pyramidRatio);
+            return new LoadRequest(SIGNAL, "POST", "/api/v1/orders/webhook", objectMapper.writeValueAsString(signal));
+        }
+
+        private List<BigDecimal> loadBalanceSamples() throws IOException {
+            List<BigDecimal> samples = new ArrayList<>();
+            for (String file : settings.balanceSamples) {
+                Path path = Path.of(file);
+                if (Files.exists(path)) {
+                    JsonNode balance = objectMapper.readTree(path.toFile()).path("currentBalance");
+                    if (balance.isNumber()) {
+                        samples.add(balance.decimalValue());
+                    }
+                }
+            }
+            return samples;
+        }
+    }
+
+    /**
+     * Replays a JSONL capture in a loop. Each line is a webhook signal (has {@code symbol} and
+     * {@code action}), a balance update (has {@code currentBalance}), or either wrapped as
+     * {@code {"type": "signal"|"balance", "client_id": ..., "body": {...}}}. Recorded client IDs are
+     * mapped onto the registered users by hash, so per-user ordering is preserved. Other lines are skipped.
+     */
+    private final class ReplayWorkload implements Workload {
+
+        private final List<String> clientIds;
+        private final List<String> types = new ArrayList<>();
+        private final List<String> recordedClientIds = new ArrayList<>();
+        private final List<ObjectNode> bodies = new ArrayList<>();
+        private int position;
+
+        private ReplayWorkload(Path file, List<String> clientIds) throws IOException {
+            this.clientIds = clientIds;
+            int skipped = 0;
+            for (String line : Files.readAllLines(file)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonNode node = objectMapper.readTree(line);
+                String recordedClientId = node.path("client_id").asText("");
+                JsonNode body = node.has("body") ? node.get("body") : node;
+                String type = node.hasNonNull("type") ? node.get("type").asText() : null;
+                if (type == null) {
+                    type = body.has("currentBalance") ? BALANCE :
+                            body.has("symbol") && body.has("action") ? SIGNAL : null;
+                }
+                if (!body.isObject() || !(SIGNAL.equals(type) || BALANCE.equals(type))) {
+                    skipped++;
+                    continue;
+                }
+                if (recordedClientId.isEmpty()) {
+                    recordedClientId = body.path("client_id").asText("");
+                }
+                types.add(type);
+                recordedClientIds.add(recordedClientId);
+                bodies.add((ObjectNode) body);
+            }
+            if (bodies.isEmpty()) {
+                throw new IllegalArgumentException("No signals or balance updates found in " + file);
+            }
+            System.out.printf("Replaying %d requests from %s (%d lines skipped)%n", bodies.size(), file, skipped);
+        }
+
+        @Override
+        public LoadRequest next() throws IOException {
+            int index = position;
+            position = (position + 1) % bodies.size();
+
+            String recorded = recordedClientIds.get(index);
+            String clientId = recorded.isEmpty() ?
+                    clientIds.get(index % clientIds.size()) :
+                    clientIds.get(Math.floorMod(recorded.hashCode(), clientIds.size()));
+            ObjectNode body = bodies.get(index);
+
+            if (BALANCE.equals(types.get(index))) {
+                return new LoadRequest(BALANCE, "PUT", "/api/v1/users/" + clientId + "/balance",
+                        objectMapper.writeValueAsString(body));
+            }
+            ObjectNode signal = body.deepCopy();
+            signal.put("client_id", clientId);
+            return new LoadRequest(SIGNAL, "POST", "/api/v1/orders/webhook", objectMapper.writeValueAsString(signal));
+        }
+    }
+
+    private static final class Stats {
+
+        private final Histogram corrected = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram service = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+
+        private void record(long intendedNanos, long sentNanos, long doneNanos, int status) {
+            corrected.recordValue(toMicros(doneNanos - intendedNanos));
+            service.recordValue(toMicros(doneNanos - sentNanos));
+            statusCounts.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        private void add(Stats other) {
+            corrected.add(other.corrected);
+            service.add(other.service);
+            other.statusCounts.forEach((status, count) ->
+                    statusCounts.computeIfAbsent(status, s -> new LongAdder()).add(count.sum()));
+        }
+    }
+
+    /**
+     * {@code loadgen.*} system properties.
+     */
+    static final class Settings {
+
+        String baseUrl;
+        double rate;
+        int durationSeconds;
+        int warmupSeconds;
+        int reportIntervalSeconds;
+        int timeoutSeconds;
+        int users;
+        int maxInFlight;
+        long seed;
+        String replay;
+        double balanceRatio;
+        double riskyRatio;
+        double pyramidRatio;
+        double inverseRatio;
+        List<String> symbols;
+        List<String> strategies;
+        List<String> balanceSamples;
+        BigDecimal initialBalance;
+        BigDecimal dailyRiskPercentage;
+        BigDecimal dailyRiskAbsolute;
+
+        static Settings fromSystemProperties() {
+            Settings settings = new Settings();
+            settings.baseUrl = property("base-url", "http://localhost:8080");
+            settings.rate = Double.parseDouble(property("rate", "100"));
+            settings.durationSeconds = Integer.parseInt(property("duration-seconds", "60"));
+            settings.warmupSeconds = Integer.parseInt(property("warmup-seconds", "10"));
+            settings.reportIntervalSeconds = Integer.parseInt(property("report-interval-seconds", "5"));
+            settings.timeoutSeconds = Integer.parseInt(property("timeout-seconds", "30"));
+            settings.users = Integer.parseInt(property("users", "20"));
+            settings.maxInFlight = Integer.parseInt(property("max-in-flight", "1000"));
+            settings.seed = Long.parseLong(property("seed", "42"));
+            settings.replay = System.getProperty("loadgen.replay");
+            settings.balanceRatio = Double.parseDouble(property("balance-ratio", "0.2"));
+            settings.riskyRatio = Double.parseDouble(property("risky-ratio", "0.02"));
+            settings.pyramidRatio = Double.parseDouble(property("pyramid-ratio", "0.3"));
+            settings.inverseRatio = Double.parseDouble(property("inverse-ratio", "0.2"));
+            settings.symbols = list(property("symbols", "PF_XBTUSD,PF_ETHUSD,PF_SOLUSD"));
+            settings.strategies = list(property("strategies", "momentum,mean-reversion,breakout"));
+            settings.balanceSamples = list(property("balance-samples",
+                    "balance_update.json,balance_update_risky.json,balance_test.json"));
+            settings.initialBalance = new BigDecimal(property("initial-balance", "10000.00"));
+            settings.dailyRiskPercentage = new BigDecimal(property("daily-risk-percentage", "5.0"));
+            settings.dailyRiskAbsolute = new BigDecimal(property("daily-risk-absolute", "1000.00"));
+            if (settings.rate <= 0 || settings.users <= 0 || settings.maxInFlight <= 0) {
+                throw new IllegalArgumentException("loadgen.rate, loadgen.users and loadgen.max-in-flight must be positive");
+            }
+            return settings;
+        }
+
+        private static String property(String name, String defaultValue) {
+            return System.getProperty("loadgen." + name, defaultValue);
+        }
+
+        private static List<String> list(String value) {
+            return Arrays.stream(value.split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.assessment.riskmanagement.repository;
+
+import com.assessment.riskmanagement.BenchmarkDatabase;
+import com.assessment.riskmanagement.config.DatabaseConfig;
+import com.assessment.riskmanagement.entity.Order;
+import com.assessment.riskmanagement.entity.OrderSide;
+import com.assessment.riskmanagement.entity.OrderStatus;
+import com.assessment.riskmanagement.entity.RiskEvent;
+import com.assessment.riskmanagement.entity.RiskEventType;
+import com.assessment.riskmanagement.entity.User;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * JDBC statements and rows per second for the write paths, without batching and with the
+ * batch-writes profile's batch size. The two runs share one context and differ only in the Hibernate
+ * session's JDBC batch size (unset means one statement per row, as before the profile). Each
+ * transaction writes {@value #CHUNK} rows, the size the bulk paths flush in. The last-risk-check
+ * stamp compares a save per user with the sweep's bulk UPDATE of up to 500 ids.
+ * Run with {@code mvn -Pbenchmark test}, adding {@code -Dbenchmark.database=postgresql} for PostgreSQL.
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DatabaseConfig.class, BatchWriteBenchmarkTest.StatementCounter.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BatchWriteBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchWriteBenchmarkTest.class);
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int CHUNK = 500;
+    // spring.jpa.properties.hibernate.jdbc.batch_size in application-batch-writes.yml
+    private static final int PROFILE_BATCH_SIZE = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private RiskEventRepository riskEventRepository;
+
+    @BeforeAll
+    static void assumeDatabase() {
+        BenchmarkDatabase.assumeAvailable();
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @Test
+    void writePathsWithAndWithoutBatching() {
+        // Untimed passes so both measured ones run on a warmed-up JIT
+        runAll(null, false);
+        runAll(PROFILE_BATCH_SIZE, false);
+        runAll(null, true);
+        runAll(PROFILE_BATCH_SIZE, true);
+    }
+
+    private void runAll(Integer batchSize, boolean report) {
+        User user = newUsers(1, batchSize).get(0);
+        List<UUID> orderIds = new ArrayList<>(ROWS);
+
+        measure("order inserts", batchSize, report, ROWS, chunk -> {
+            List<Order> orders = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk; i++) {
+                Order order = new Order(entityManager.getReference(User.class, user.getId()),
+                        "PF_XBTUSD", "trend", OrderSide.BUY, BigDecimal.ONE);
+                order.setStatus(OrderStatus.OPEN);
+                orders.add(order);
+            }
+            orderRepository.saveAll(orders).forEach(o -> orderIds.add(o.getId()));
+        });
+
+        int[] next = {0};
+        measure("order status updates", batchSize, report, ROWS, chunk -> {
+            List<UUID> ids = orderIds.subList(next[0], next[0] + chunk);
+            next[0] += chunk;
+            // Dirty-checked updates, as in the close-all and inverse loops
+            orderRepository.findAllById(ids).forEach(o -> o.setStatus(OrderStatus.CLOSED));
+        });
+
+        measure("risk event inserts", batchSize, report, ROWS, chunk -> {
+            List<RiskEvent> events = new ArrayList<>(chunk);
+            for (int i = 0; i < chunk; i++) {
+                RiskEvent event = new RiskEvent(entityManager.getReference(User.class, user.getId()),
+                        RiskEventType.DAILY_RISK_EXCEEDED, "benchmark");
+                event.setCurrentBalance(BigDecimal.TEN);
+                events.add(event);
+            }
+            riskEventRepository.saveAll(events);
+        });
+
+        int users = ROWS / 10;
+        List<UUID> userIds = newUsers(users, batchSize).stream().map(User::getId).toList();
+        LocalDateTime checkedAt = LocalDateTime.now();
+        if (batchSize == null) {
+            // Before: the sweep stamped each user with its own statement
+            int[] from = {0};
+            measure("last-risk-check stamps", null, report, users, chunk -> {
+                for (UUID id : userIds.subList(from[0], from[0] + chunk)) {
+                    userRepository.stampLastRiskCheck(List.of(id), checkedAt);
+                }
+                from[0] += chunk;
+            });
+        } else if (batchSize == PROFILE_BATCH_SIZE) {
+            int[] from = {0};
+            measure("last-risk-check stamps", batchSize, report, users, chunk -> {
+                userRepository.stampLastRiskCheck(userIds.subList(from[0], from[0] + chunk), checkedAt);
+                from[0] += chunk;
+            });
+        }
+    }
+
+    private List<User> newUsers(int count, Integer batchSize) {
+        List<User> users = new ArrayList<>(count);
+        inTransaction(batchSize, () -> {
+            for (int i = 0; i < count; i++) {
+                User user = new User("bench-" + UUID.randomUUID(), "key", "secret");
+                user.setInitialBalance(BigDecimal.valueOf(10_000));
+                user.setCurrentBalance(BigDecimal.valueOf(10_000));
+                users.add(user);
+            }
+            userRepository.saveAll(users);
+        });
+        return users;
+    }
+
+    /**
+     * Runs the work in transactions of {@value #CHUNK} rows and reports rows and JDBC statement
+     * executions (round trips; a batch is one) per second.
+     */
+    private void measure(String phase, Integer batchSize, boolean report, int rows, Consumer<Integer> work) {
+        long executionsBefore = statementCounter.executions.get();
+        long start = System.nanoTime();
+        for (int done = 0; done < rows; done += CHUNK) {
+            int chunk = Math.min(CHUNK, rows - done);
+            inTransaction(batchSize, () -> work.accept(chunk));
+        }
+        long nanos = System.nanoTime() - start;
+        long statements = statementCounter.executions.get() - executionsBefore;
+        if (report) {
+            double seconds = nanos / (double) TimeUnit.SECONDS.toNanos(1);
+            logger.info("{} {} ({}): {} rows in {} s, {} rows/s, {} statements, {} statements/s",
+                    BenchmarkDatabase.name(), phase, batchSize == null ? "no batching" : "batch size " + batchSize,
+                    rows, String.format("%.2f", seconds), Math.round(rows / seconds), statements,
+                    Math.round(statements / seconds));
+        }
+    }
+
+    private void inTransaction(Integer batchSize, Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            work.run();
+            entityManager.flush();
+            entityManager.clear();
+        });
+    }
+
+    /**
+     * Wraps the DataSource so every {@code execute*} call on a statement is counted.
+     */
+    @TestConfiguration
+    static class StatementCounter {
+
+        private final AtomicLong executions = new AtomicLong();
+
+        @Bean
+        static BeanPostProcessor countingDataSource(StatementCounter counter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? counter.wrap(DataSource.class, dataSource) : bean;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> T wrap(Class<T> type, T target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                if (Statement.class.isAssignableFrom(type) && method.getName().startsWith("execute")) {
+                    executions.incrementAndGet();
+                }
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+                    return wrap(Connection.class, connection);
+                }
+                if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                    return wrap((Class<Statement>) method.getReturnType(), statement);
+                }
+                return result;
+            };
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.assessment.riskmanagement.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the Flyway migrations against PostgreSQL and checks that the repository queries on the request
+ * and monitoring paths are planned on the indexes from V2 (recreated on the partitioned tables in V3).
+ * Partitions carry their own copies of a partitioned index, so plans are mapped back to the parent index.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class HotPathIndexTest {
+
+    private static final Pattern INDEX_IN_PLAN = Pattern.compile("(?:Index Scan|Index Only Scan|Bitmap Index Scan)(?: Backward)? (?:using|on) (\\S+)");
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static Connection connection;
+    private static String userId;
+
+    @BeforeAll
+    static void migrateAndLoad() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            // Rows are spread over the current month, which V3 created a partition for
+            statement.execute("""
+                    INSERT INTO users (id, client_id, kraken_api_key, kraken_private_key, initial_balance, current_balance,
+                            is_active, trading_enabled, created_at, sweep_bucket)
+                    SELECT gen_random_uuid(), 'client-' || n, 'key', 'secret', 10000, 10000, true, n % 10 <> 0,
+                           now()::timestamp - n * INTERVAL '1 minute', n % 1024
+                    FROM generate_series(1, 2000) n""");
+            statement.execute("""
+                    INSERT INTO orders (id, user_id, symbol, strategy, side, quantity, inverse, pyramid, status, created_at)
+                    SELECT gen_random_uuid(), u.id, 'PF_XBTUSD', 'strategy-' || (n % 5), 'BUY', 1, false, false,
+                           CASE WHEN n % 20 = 0 THEN 'OPEN' ELSE 'CLOSED' END,
+                           date_trunc('month', now()::timestamp) + random() * (now()::timestamp - date_trunc('month', now()::timestamp))
+                    FROM users u, generate_series(1, 25) n""");
+            statement.execute("""
+                    INSERT INTO risk_events (id, user_id, event_type, description, trading_disabled_until, created_at)
+                    SELECT gen_random_uuid(), u.id, 'DAILY_RISK_EXCEEDED', 'loss',
+                           CASE WHEN n = 1 THEN now()::timestamp + INTERVAL '1 hour' END,
+                           date_trunc('month', now()::timestamp) + random() * (now()::timestamp - date_trunc('month', now()::timestamp))
+                    FROM users u, generate_series(1, 20) n""");
+            statement.execute("ANALYZE");
+            // Small tables could still be cheaper to scan; the question is whether the index fits the query
+            statement.execute("SET enable_seqscan = off");
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT id FROM users ORDER BY client_id LIMIT 1")) {
+            rs.next();
+            userId = rs.getString(1);
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void openOrdersByUserUseUserStatusIndex() throws SQLException {
+        assertPlanUses("idx_orders_user_status",
+                "SELECT id FROM orders WHERE user_id = '" + userId + "' AND status = 'OPEN'");
+    }
+
+    @Test
+    void webhookPositionLookupUsesStrategySymbolIndex() throws SQLException {
+        assertPlanUses("idx_orders_user_strategy_symbol_status",
+                "SELECT id FROM orders WHERE user_id = '" + userId + "' AND strategy = 'strategy-1' " +
+                "AND symbol = 'PF_XBTUSD' AND status = 'OPEN'");
+    }
+
+    @Test
+    void userOrderPageUsesKeysetIndex() throws SQLException {
+        assertPlanUses("idx_orders_user_created_id",
+                "SELECT id FROM orders WHERE user_id = '" + userId + "' ORDER BY created_at DESC, id DESC LIMIT 50");
+        assertPlanUses("idx_orders_user_created_id",
+                "SELECT id FROM orders WHERE user_id = '" + userId + "' " +
+                "AND (created_at < now()::timestamp OR (created_at = now()::timestamp AND id < 'ffffffff-ffff-ffff-ffff-ffffffffffff')) " +
+                "ORDER BY created_at DESC, id DESC LIMIT 50");
+    }
+
+    @Test
+    void riskEventPagesUseKeysetIndexes() throws SQLException {
+        assertPlanUses("idx_risk_events_created_id",
+                "SELECT id FROM risk_events ORDER BY created_at DESC, id DESC LIMIT 50");
+        assertPlanUses("idx_risk_events_user_created_id",
+                "SELECT id FROM risk_events WHERE user_id = '" + userId + "' ORDER BY created_at DESC, id DESC LIMIT 50");
+    }
+
+    @Test
+    void expiredRestrictionSubqueriesUsePartialDisabledUntilIndex() throws SQLException {
+        // The EXISTS / NOT EXISTS probes of UserRepositoryCustomImpl.enableTradingForExpiredRestrictions
+        assertPlanUses("idx_risk_events_user_disabled_until",
+                "SELECT 1 FROM risk_events WHERE user_id = '" + userId + "' " +
+                "AND created_at >= now()::timestamp - INTERVAL '1 day' AND trading_disabled_until > now()::timestamp");
+        assertPlanUses("idx_risk_events_user_disabled_until",
+                "SELECT 1 FROM risk_events WHERE user_id = '" + userId + "' " +
+                "AND created_at >= now()::timestamp - INTERVAL '1 day' AND trading_disabled_until IS NOT NULL");
+    }
+
+    @Test
+    void userPageUsesKeysetIndex() throws SQLException {
+        assertPlanUses("idx_users_created_id",
+                "SELECT id FROM users ORDER BY created_at DESC, id DESC LIMIT 50");
+    }
+
+    private static void assertPlanUses(String expectedIndex, String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        Set<String> parents = new LinkedHashSet<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + query)) {
+            while (rs.next()) {
+                String line = rs.getString(1);
+                plan.append(line).append('\n');
+                Matcher matcher = INDEX_IN_PLAN.matcher(line);
+                while (matcher.find()) {
+                    parents.add(rootIndex(matcher.group(1)));
+                }
+            }
+        }
+        assertTrue(parents.contains(expectedIndex),
+                "expected " + expectedIndex + " but the plan uses " + parents + ":\n" + plan);
+    }
+
+    // Walks from a partition's index up to the index declared on the partitioned table
+    private static String rootIndex(String index) throws SQLException {
+        String current = index;
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT parent.relname FROM pg_inherits i
+                JOIN pg_class child ON child.oid = i.inhrelid
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                WHERE child.relname = ?""")) {
+            while (true) {
+                statement.setString(1, current);
+                try (ResultSet rs = statement.executeQuery()) {
+                    if (!rs.next()) {
+                        return current;
+                    }
+                    current = rs.getString(1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.assessment.riskmanagement.repository;
+
+import com.assessment.riskmanagement.BenchmarkDatabase;
+import com.assessment.riskmanagement.config.DatabaseConfig;
+import com.assessment.riskmanagement.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Entity reads against the projection queries that replaced them, on {@value #USERS} users with
+ * Kraken key columns of production length. Each pass runs in a read-write transaction, as the
+ * sweep's did, so the entity side also pays for the dirty check at commit. Reports the median time
+ * and the bytes allocated per pass.
+ * Run with {@code mvn -Pbenchmark test}, adding {@code -Dbenchmark.database=postgresql} for PostgreSQL.
+ */
+@Tag("benchmark")
+@DataJpaTest(showSql = false)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DatabaseConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProjectionReadBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectionReadBenchmarkTest.class);
+    private static final int USERS = 100_000;
+    private static final int WARMUP_PASSES = 2;
+    private static final int PASSES = 5;
+    private static final int PAGE_SIZE = 100;
+    // The user list query before it selected a UserSummary
+    private static final String USER_PAGE_ENTITIES = "SELECT u FROM User u ORDER BY u.createdAt DESC, u.id DESC";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @BeforeAll
+    static void assumeDatabase() {
+        BenchmarkDatabase.assumeAvailable();
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        BenchmarkDatabase.register(registry);
+    }
+
+    @BeforeEach
+    void seedUsers() {
+        if (userRepository.count() >= USERS) {
+            return;
+        }
+        String apiKey = "k".repeat(56);
+        String privateKey = "p".repeat(88);
+        LocalDateTime start = LocalDateTime.now().minusDays(30);
+        List<Object[]> rows = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            rows.add(new Object[]{UUID.randomUUID(), "bench-" + i, apiKey, privateKey, BigDecimal.valueOf(10_000),
+                    BigDecimal.valueOf(9_500), BigDecimal.valueOf(2), i % 10 != 0, true,
+                    Timestamp.valueOf(start.plusSeconds(i)), (short) (i % User.SWEEP_BUCKETS)});
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO users (id, client_id, kraken_api_key, kraken_private_key, initial_balance, current_balance,
+                        daily_risk_percentage, is_active, trading_enabled, created_at, sweep_bucket)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)""", rows);
+    }
+
+    @Test
+    void sweepReadsSnapshotsInsteadOfEntities() {
+        int active = USERS - USERS / 10;
+        measure("active users for the sweep", "entities", () -> userRepository.findAllActiveUsers().size(), active);
+        measure("active users for the sweep", "UserRiskSnapshot", () -> userRepository.findActiveUserRiskSnapshots().size(), active);
+    }
+
+    @Test
+    void userPageReadsSummariesInsteadOfEntities() {
+        measure("user list page", "entities", () -> entityManager.createQuery(USER_PAGE_ENTITIES, User.class)
+                .setMaxResults(PAGE_SIZE + 1).getResultList().size(), PAGE_SIZE + 1);
+        measure("user list page", "UserSummary", () -> userRepository.findPage(PageRequest.of(0, PAGE_SIZE + 1)).size(),
+                PAGE_SIZE + 1);
+    }
+
+    private void measure(String read, String variant, Supplier<Integer> query, int expectedRows) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long[] nanos = new long[PASSES];
+        long allocated = 0;
+        for (int pass = -WARMUP_PASSES; pass < PASSES; pass++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            Integer rows = transaction.execute(status -> query.get());
+            long elapsed = System.nanoTime() - start;
+            assertEquals(expectedRows, rows.intValue());
+            if (pass >= 0) {
+                nanos[pass] = elapsed;
+                allocated += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            }
+        }
+        Arrays.sort(nanos);
+        logger.info("{} {} as {}: {} rows, median {} ms, {} MiB allocated per pass", BenchmarkDatabase.name(), read,
+                variant, expectedRows, String.format("%.1f", nanos[PASSES / 2] / (double) TimeUnit.MILLISECONDS.toNanos(1)),
+                String.format("%.1f", allocated / (double) PASSES / (1024 * 1024)));
+    }
+}
@@ -0,0 +1,117 @@
+package com.assessment.riskmanagement.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LatencyServiceTest {
+
+    private static final long TICK = TimeUnit.SECONDS.toMillis(10);
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long FIVE_MINUTES = TimeUnit.MINUTES.toMillis(5);
+    private static final long ONE_HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long ONE_MS_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private final LatencyService latencyService = new LatencyService(clock::get);
+
+    @Test
+    void windowsCountOnlyRolledSlots() {
+        latencyService.record(LatencyService.WEBHOOK, ONE_MS_NANOS);
+
+        assertEquals(0, count(ONE_MINUTE));
+
+        advanceAndRoll(TICK);
+        assertEquals(1, count(ONE_MINUTE));
+        assertEquals(TimeUnit.SECONDS.toMillis(10), latencyService.window(LatencyService.WEBHOOK, ONE_MINUTE).coveredMillis);
+    }
+
+    @Test
+    void delayedRollWidensOneSlotInsteadOfShiftingWindows() {
+        recordTimes(10, ONE_MS_NANOS);
+        advanceAndRoll(TICK);
+        recordTimes(10, 2 * ONE_MS_NANOS);
+        // The scheduler thread was busy: this slot covers 30 seconds instead of 10
+        advanceAndRoll(3 * TICK);
+
+        assertEquals(20, count(ONE_MINUTE));
+        assertEquals(TimeUnit.SECONDS.toMillis(40), latencyService.window(LatencyService.WEBHOOK, ONE_MINUTE).coveredMillis);
+
+        advanceAndRoll(3 * TICK);
+
+        // 70 seconds in: the first slot (midpoint 5s) has left the 1m window, the delayed one (midpoint 25s) has not
+        LatencyService.Window window = latencyService.window(LatencyService.WEBHOOK, ONE_MINUTE);
+        assertEquals(10, window.histogram.getTotalCount());
+        assertEquals(2.0, window.histogram.getMinValue() / 1000.0, 0.05);
+        assertEquals(TimeUnit.SECONDS.toMillis(60), window.coveredMillis);
+        assertEquals(20, count(FIVE_MINUTES));
+    }
+
+    @Test
+    void longWindowsCombineCoarseAndFineSlots() {
+        // One sample per 10 second tick for 20 minutes; coarse merges happen every 5 minutes
+        for (int tick = 0; tick < 120; tick++) {
+            latencyService.record(LatencyService.WEBHOOK, ONE_MS_NANOS);
+            advanceAndRoll(TICK);
+        }
+
+        assertEquals(6, count(ONE_MINUTE));
+        assertEquals(30, count(FIVE_MINUTES));
+        assertEquals(120, count(ONE_HOUR));
+
+        // Halfway to the next merge the hour window mixes fine slots with coarse ones
+        for (int tick = 0; tick < 15; tick++) {
+            latencyService.record(LatencyService.WEBHOOK, ONE_MS_NANOS);
+            advanceAndRoll(TICK);
+        }
+        assertEquals(6, count(ONE_MINUTE));
+        assertEquals(30, count(FIVE_MINUTES));
+        assertEquals(135, count(ONE_HOUR));
+    }
+
+    @Test
+    void hourWindowDropsExpiredCoarseSlots() {
+        for (int tick = 0; tick < 420; tick++) {
+            latencyService.record(LatencyService.WEBHOOK, ONE_MS_NANOS);
+            advanceAndRoll(TICK);
+        }
+
+        // 70 minutes in, right after a merge: exactly the last hour of samples
+        LatencyService.Window window = latencyService.window(LatencyService.WEBHOOK, ONE_HOUR);
+        assertEquals(360, window.histogram.getTotalCount());
+        assertEquals(ONE_HOUR, window.coveredMillis);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshotReportsCountAndCoverage() {
+        recordTimes(3, ONE_MS_NANOS);
+        advanceAndRoll(TICK);
+
+        Map<String, Object> windows = (Map<String, Object>) latencyService.getLatencySnapshot().get(LatencyService.WEBHOOK);
+        Map<String, Object> oneMinute = (Map<String, Object>) windows.get("1m");
+
+        assertEquals(3L, oneMinute.get("count"));
+        assertEquals(10L, oneMinute.get("covered_seconds"));
+        assertEquals(1.0, (Double) oneMinute.get("p50_ms"), 0.05);
+    }
+
+    private void recordTimes(int times, long durationNanos) {
+        for (int i = 0; i < times; i++) {
+            latencyService.record(LatencyService.WEBHOOK, durationNanos);
+        }
+    }
+
+    private void advanceAndRoll(long millis) {
+        clock.addAndGet(millis);
+        latencyService.roll();
+    }
+
+    private long count(long windowMillis) {
+        return latencyService.window(LatencyService.WEBHOOK, windowMillis).histogram.getTotalCount();
+    }
+}